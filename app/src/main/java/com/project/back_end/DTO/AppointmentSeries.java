@@ -0,0 +1,91 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO for booking a recurring series of visits with one doctor, e.g. a
+ * weekly therapy plan. The patient is the one the request token
+ * belongs to.
+ */
+public class AppointmentSeries {
+
+    public static final int MAX_OCCURRENCES = 52;
+
+    @NotNull(message = "doctor id must not be null")
+    private Long doctorId;
+
+    @NotNull(message = "first appointment time must not be null")
+    @Future(message = "Appointment time must be in the future")
+    private LocalDateTime firstAppointmentTime;
+
+    @Min(value = 2, message = "a series has at least 2 occurrences")
+    @Max(value = MAX_OCCURRENCES, message = "a series has at most " + MAX_OCCURRENCES + " occurrences")
+    private int occurrences;
+
+    @Min(value = 1, message = "interval must be at least 1 week")
+    @Max(value = 4, message = "interval must be at most 4 weeks")
+    private int intervalWeeks = 1;
+
+    // Default constructor
+    public AppointmentSeries() {
+    }
+
+    public AppointmentSeries(Long doctorId, LocalDateTime firstAppointmentTime, int occurrences, int intervalWeeks) {
+        this.doctorId = doctorId;
+        this.firstAppointmentTime = firstAppointmentTime;
+        this.occurrences = occurrences;
+        this.intervalWeeks = intervalWeeks;
+    }
+
+    /**
+     * Returns the start time of every visit in the series, in order.
+     */
+    public List<LocalDateTime> appointmentTimes() {
+        List<LocalDateTime> times = new ArrayList<>(occurrences);
+        for (int i = 0; i < occurrences; i++) {
+            times.add(firstAppointmentTime.plusWeeks((long) i * intervalWeeks));
+        }
+        return times;
+    }
+
+    // Getters
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDateTime getFirstAppointmentTime() {
+        return firstAppointmentTime;
+    }
+
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    public int getIntervalWeeks() {
+        return intervalWeeks;
+    }
+
+    // Setters
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public void setFirstAppointmentTime(LocalDateTime firstAppointmentTime) {
+        this.firstAppointmentTime = firstAppointmentTime;
+    }
+
+    public void setOccurrences(int occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public void setIntervalWeeks(int intervalWeeks) {
+        this.intervalWeeks = intervalWeeks;
+    }
+}
@@ -0,0 +1,32 @@
+package com.project.back_end.DTO;
+
+/**
+ * The caller identified by the request token.
+ * Resolved once per request from the signed token claims and passed to
+ * services in place of the raw token string.
+ */
+public class AuthenticatedPrincipal {
+
+    private final String role;
+    private final String email;
+    private final Long id;
+
+    public AuthenticatedPrincipal(String role, String email, Long id) {
+        this.role = role;
+        this.email = email;
+        this.id = id;
+    }
+
+    // Getters
+    public String getRole() {
+        return role;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,8 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+public interface BookedSlotRow {
+    Long getDoctorId();
+    LocalDateTime getAppointmentTime();
+}
@@ -0,0 +1,38 @@
+package com.project.back_end.DTO;
+
+import java.util.Map;
+
+/**
+ * Facet counts for the doctor directory filters.
+ *
+ * Each facet is counted over the doctors matching every other selected
+ * criterion, so a count tells how many doctors picking that option would
+ * return.
+ */
+public final class DoctorFacets {
+
+    private final Map<String, Integer> specialties;
+    private final Map<String, Integer> periods;
+    private final int total;
+
+    public DoctorFacets(Map<String, Integer> specialties, Map<String, Integer> periods, int total) {
+        this.specialties = specialties;
+        this.periods = periods;
+        this.total = total;
+    }
+
+    /** Doctors per specialty, keyed by display name in alphabetical order. */
+    public Map<String, Integer> getSpecialties() {
+        return specialties;
+    }
+
+    /** Doctors with availability in the "AM" and "PM" periods. */
+    public Map<String, Integer> getPeriods() {
+        return periods;
+    }
+
+    /** Doctors matching all selected criteria. */
+    public int getTotal() {
+        return total;
+    }
+}
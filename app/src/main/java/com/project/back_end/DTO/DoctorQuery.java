@@ -0,0 +1,125 @@
+package com.project.back_end.DTO;
+
+/**
+ * Criteria, ordering and paging for a doctor directory search.
+ *
+ * Every criterion is optional; a null or blank value does not filter.
+ * A limit of 0 returns all matches from the offset on. For keyset paging,
+ * {@code afterId} (and {@code afterName} when sorting by name) hold the
+ * sort key of the last doctor already returned.
+ */
+public class DoctorQuery {
+
+    public enum Sort {
+        /** Best name matches first; ID order when no name is given. */
+        RELEVANCE,
+        ID,
+        NAME
+    }
+
+    private String name;
+    private String specialty;
+    private String period;
+    private Sort sort = Sort.RELEVANCE;
+    private int offset;
+    private int limit;
+    private Long afterId;
+    private String afterName;
+
+    /**
+     * Builds a query from the filter endpoint's path segments, where
+     * "null" stands for a criterion that is not set.
+     */
+    public static DoctorQuery fromFilterPath(String name, String specialty, String time) {
+        DoctorQuery query = new DoctorQuery();
+        if (!name.equals("null")) query.setName(name);
+        if (!specialty.equals("null")) query.setSpecialty(specialty);
+        if (!time.equals("null")) query.setPeriod(time);
+        return query;
+    }
+
+    public boolean hasName() {
+        return name != null && !name.isBlank();
+    }
+
+    public boolean hasSpecialty() {
+        return specialty != null && !specialty.isBlank();
+    }
+
+    public boolean hasPeriod() {
+        return period != null && !period.isBlank();
+    }
+
+    public boolean hasCursor() {
+        return afterId != null;
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public String getSpecialty() {
+        return specialty;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public String getAfterName() {
+        return afterName;
+    }
+
+    // Setters
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setSpecialty(String specialty) {
+        this.specialty = specialty;
+    }
+
+    /**
+     * @param period "AM", "PM", or null for any time of day
+     */
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public void setSort(Sort sort) {
+        this.sort = sort == null ? Sort.RELEVANCE : sort;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = Math.max(0, offset);
+    }
+
+    public void setLimit(int limit) {
+        this.limit = Math.max(0, limit);
+    }
+
+    public void setAfterId(Long afterId) {
+        this.afterId = afterId;
+    }
+
+    public void setAfterName(String afterName) {
+        this.afterName = afterName;
+    }
+}
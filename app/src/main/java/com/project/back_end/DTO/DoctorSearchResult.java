@@ -0,0 +1,32 @@
+package com.project.back_end.DTO;
+
+import java.util.List;
+
+/**
+ * One page of doctor search results, the number of matches overall and
+ * whether more matches follow the page.
+ */
+public final class DoctorSearchResult {
+
+    private final List<DoctorView> doctors;
+    private final int total;
+    private final boolean hasMore;
+
+    public DoctorSearchResult(List<DoctorView> doctors, int total, boolean hasMore) {
+        this.doctors = doctors;
+        this.total = total;
+        this.hasMore = hasMore;
+    }
+
+    public List<DoctorView> getDoctors() {
+        return doctors;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,72 @@
+package com.project.back_end.DTO;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.SlotMask;
+
+/**
+ * Immutable, read-only view of a doctor served from the in-memory catalog.
+ * Serializes to the same JSON shape as the Doctor entity (without the
+ * password) and is safe to share between request threads. Availability
+ * is also kept as a {@link SlotMask} for filtering.
+ */
+public final class DoctorView {
+
+    private final Long id;
+    private final String name;
+    private final String specialty;
+    private final Integer specialtyId;
+    private final String email;
+    private final String phone;
+    private final List<String> availableTimes;
+    private final long availabilityMask;
+
+    public DoctorView(Doctor doctor) {
+        this.id = doctor.getId();
+        this.name = doctor.getName();
+        this.specialty = doctor.getSpecialty();
+        this.specialtyId = doctor.getSpecialtyRef() == null ? null : doctor.getSpecialtyRef().getId();
+        this.email = doctor.getEmail();
+        this.phone = doctor.getPhone();
+        this.availableTimes = doctor.getAvailability() == null
+                ? List.of() : List.copyOf(doctor.getAvailability());
+        this.availabilityMask = SlotMask.parse(this.availableTimes);
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSpecialty() {
+        return specialty;
+    }
+
+    @JsonIgnore
+    public Integer getSpecialtyId() {
+        return specialtyId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public List<String> getAvailableTimes() {
+        return availableTimes;
+    }
+
+    @JsonIgnore
+    public long getAvailabilityMask() {
+        return availabilityMask;
+    }
+}
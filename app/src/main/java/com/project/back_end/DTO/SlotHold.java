@@ -0,0 +1,47 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO for holding a doctor's slot briefly while the patient confirms
+ * the booking. The patient is the one the request token belongs to.
+ */
+public class SlotHold {
+
+    @NotNull(message = "doctor id must not be null")
+    private Long doctorId;
+
+    @NotNull(message = "appointment time must not be null")
+    @Future(message = "Appointment time must be in the future")
+    private LocalDateTime appointmentTime;
+
+    // Default constructor
+    public SlotHold() {
+    }
+
+    public SlotHold(Long doctorId, LocalDateTime appointmentTime) {
+        this.doctorId = doctorId;
+        this.appointmentTime = appointmentTime;
+    }
+
+    // Getters
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    // Setters
+    public void setDoctorId(Long doctorId) {
+        this.doctorId = doctorId;
+    }
+
+    public void setAppointmentTime(LocalDateTime appointmentTime) {
+        this.appointmentTime = appointmentTime;
+    }
+}
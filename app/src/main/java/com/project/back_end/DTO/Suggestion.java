@@ -0,0 +1,31 @@
+package com.project.back_end.DTO;
+
+/**
+ * One autocomplete suggestion for the directory search box: a doctor
+ * (with its ID) or a specialty (without one).
+ */
+public final class Suggestion {
+
+    private final String type;
+    private final Long id;
+    private final String label;
+
+    public Suggestion(String type, Long id, String label) {
+        this.type = type;
+        this.id = id;
+        this.label = label;
+    }
+
+    /** "doctor" or "specialty". */
+    public String getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.back_end.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on JDBC batching for Hibernate writes.
+ *
+ * Inserts and updates flushed together are grouped per table and sent as
+ * one batch of up to {@code clinic.jpa.batch-size} rows. Entities with
+ * IDENTITY ids are always inserted one by one; appointments use a pooled
+ * sequence of the same size so a series of visits goes out in one batch.
+ * On PostgreSQL, {@code reWriteBatchedInserts=true} on the JDBC URL also
+ * folds each batch into a single multi-row INSERT.
+ */
+@Configuration
+public class JpaBatchConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatching(@Value("${clinic.jpa.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.project.back_end.config;
+
+import java.util.Map;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import com.project.back_end.services.TokenService;
+
+/**
+ * Supplies {@link AuthenticatedPrincipal} controller arguments.
+ *
+ * Reads the {@code {token}} path variable, resolves it through the token
+ * claims once and keeps the result as a request attribute so every later
+ * lookup in the same request is free. An invalid token, or a principal
+ * whose role differs from the parameter's {@link PrincipalRole}, is
+ * rejected with {@link PrincipalRejectedException} before the handler
+ * runs, so handlers never see a null or foreign principal and need no
+ * token checks of their own.
+ */
+@Component
+public class PrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String PRINCIPAL_ATTRIBUTE = AuthenticatedPrincipal.class.getName();
+    private static final String INVALID_TOKEN = "Invalid or expired token";
+
+    private final TokenService tokenService;
+
+    public PrincipalArgumentResolver(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    public boolean supportsParameter(@NonNull MethodParameter parameter) {
+        return AuthenticatedPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(@NonNull MethodParameter parameter, ModelAndViewContainer mavContainer,
+            @NonNull NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        PrincipalRole required = parameter.getParameterAnnotation(PrincipalRole.class);
+        Map<String, String> pathVariables = pathVariables(webRequest);
+        AuthenticatedPrincipal principal = resolve(webRequest, pathVariables, required != null);
+        if (principal != null && required != null
+                && !principal.getRole().equals(requiredRole(required, pathVariables))) {
+            throw new PrincipalRejectedException(INVALID_TOKEN);
+        }
+        return principal;
+    }
+
+    private static String requiredRole(PrincipalRole required, Map<String, String> pathVariables) {
+        if (!required.value().isEmpty()) return required.value();
+        return pathVariables.get(required.pathVariable());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> pathVariables(NativeWebRequest webRequest) {
+        Map<String, String> pathVariables = (Map<String, String>) webRequest.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pathVariables == null ? Map.of() : pathVariables;
+    }
+
+    private AuthenticatedPrincipal resolve(NativeWebRequest webRequest, Map<String, String> pathVariables,
+            boolean tokenRequired) {
+        Object cached = webRequest.getAttribute(PRINCIPAL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached != null) return (AuthenticatedPrincipal) cached;
+
+        String token = pathVariables.get("token");
+        if (token == null) {
+            if (tokenRequired) throw new PrincipalRejectedException(INVALID_TOKEN);
+            return null;
+        }
+
+        AuthenticatedPrincipal principal = tokenService.resolvePrincipal(token);
+        if (principal == null) throw new PrincipalRejectedException(INVALID_TOKEN);
+
+        webRequest.setAttribute(PRINCIPAL_ATTRIBUTE, principal, RequestAttributes.SCOPE_REQUEST);
+        return principal;
+    }
+}
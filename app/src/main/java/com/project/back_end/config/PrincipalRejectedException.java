@@ -0,0 +1,12 @@
+package com.project.back_end.config;
+
+/**
+ * Thrown by {@link PrincipalArgumentResolver} when the request token does
+ * not resolve to a principal the handler accepts. Answered with 401.
+ */
+public class PrincipalRejectedException extends RuntimeException {
+
+    public PrincipalRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.back_end.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Role an {@link com.project.back_end.DTO.AuthenticatedPrincipal}
+ * controller argument must have.
+ *
+ * The request is answered with 401 before the handler runs when the
+ * token is invalid or belongs to a principal of another role. Endpoints
+ * shared by several roles name the role in a path variable instead.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PrincipalRole {
+
+    /**
+     * One of "admin", "doctor" or "patient".
+     */
+    String value() default "";
+
+    /**
+     * Path variable holding the required role, used when {@link #value()} is empty.
+     */
+    String pathVariable() default "";
+}
@@ -1,15 +1,24 @@
 package com.project.back_end.config;
 
 
+import java.util.List;
+
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull; 
 
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final PrincipalArgumentResolver principalArgumentResolver;
+
+    public WebConfig(PrincipalArgumentResolver principalArgumentResolver) {
+        this.principalArgumentResolver = principalArgumentResolver;
+    }
+
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
         
@@ -18,4 +27,9 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("GET", "POST", "PUT", "DELETE")
                 .allowedHeaders("*");
     }
+
+    @Override
+    public void addArgumentResolvers(@NonNull List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(principalArgumentResolver);
+    }
 }
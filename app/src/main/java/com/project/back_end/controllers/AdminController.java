@@ -1,8 +1,10 @@
 
 package com.project.back_end.controllers;
 
+import java.util.HashMap;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,22 +12,36 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import com.project.back_end.config.PrincipalRole;
 import com.project.back_end.models.Admin;
+import com.project.back_end.services.LoginThrottle;
 import com.project.back_end.services.Service;
+import com.project.back_end.services.SlotCalendar;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("${api.path}" + "admin")
 public class AdminController {
 
     private final Service service;
+    private final LoginThrottle loginThrottle;
+    private final SlotCalendar slotCalendar;
 
     @Autowired
-    public AdminController(Service service) {
+    public AdminController(Service service, LoginThrottle loginThrottle, SlotCalendar slotCalendar) {
         this.service = service;
+        this.loginThrottle = loginThrottle;
+        this.slotCalendar = slotCalendar;
     }
 
     @PostMapping
-    public ResponseEntity<Map<String, String>> adminLogin(@RequestBody Admin admin) {
+    public ResponseEntity<Map<String, String>> adminLogin(@RequestBody Admin admin, HttpServletRequest request) {
+        if (loginThrottle.rejectAttempt("admin", admin.getUsername(), request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(Map.of("error", "Too many login attempts, please try again later"));
+        }
         return service.validateAdmin(admin);
     }
 
@@ -37,4 +53,20 @@ public class AdminController {
     
         return "redirect:/";
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks the slot calendar against the appointment table and repairs
+     * drifted days (Admin only). Safe to run while bookings are taken.
+     *
+     * @param principal Admin resolved from the token
+     * @return ResponseEntity with the number of repaired days or error message
+     */
+    @PostMapping("/slot-calendar/rebuild/{token}")
+    public ResponseEntity<Map<String, Object>> rebuildSlotCalendar(
+            @PrincipalRole("admin") AuthenticatedPrincipal principal) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", "Slot calendar rebuilt");
+        map.put("repaired", slotCalendar.rebuild());
+        return ResponseEntity.ok(map);
+    }
+}
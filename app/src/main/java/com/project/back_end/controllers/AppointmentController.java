@@ -2,12 +2,11 @@ package com.project.back_end.controllers;
 
 
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,12 +14,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.project.back_end.DTO.AppointmentSeries;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import com.project.back_end.DTO.SlotHold;
+import com.project.back_end.config.PrincipalRole;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.services.AppointmentService;
-import com.project.back_end.services.Service;
+import com.project.back_end.services.IdempotencyStore;
 
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -38,12 +42,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
-    private final Service service;
+    private final IdempotencyStore idempotencyStore;
 
     @Autowired
-    public AppointmentController(AppointmentService appointmentService, Service service) {
+    public AppointmentController(AppointmentService appointmentService, IdempotencyStore idempotencyStore) {
         this.appointmentService = appointmentService;
-        this.service = service;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
@@ -55,23 +59,15 @@ public class AppointmentController {
      * 
      * @param date ISO format date (YYYY-MM-DD) to filter appointments
      * @param patientName Patient name for filtering or "null" for all
-     * @param token JWT token for doctor authentication
+     * @param principal Doctor resolved from the token
      * @return ResponseEntity with appointments list or error message
      */
     @GetMapping("/{date}/{patientName}/{token}")
     public ResponseEntity<Map <String,Object>> getAppointments(
             @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
-            @PathVariable String patientName,@PathVariable String token) {
-        Map<String, Object> map = new HashMap<>();
-        ResponseEntity<Map<String,String>> tempMap = service.validateToken(token, "doctor");
-        Map<String,String> tempBody = tempMap.getBody();
-        if (tempMap.getStatusCode() != HttpStatus.OK ||
-                (tempBody != null && tempBody.containsKey("error"))) {
-            if (tempBody != null) map.putAll(tempBody);
-            return new ResponseEntity<>(map, tempMap.getStatusCode());
-        }
-
-        map = appointmentService.getAppointment(patientName, date, token);
+            @PathVariable String patientName,
+            @PrincipalRole("doctor") AuthenticatedPrincipal principal) {
+        Map<String, Object> map = appointmentService.getAppointment(patientName, date, principal.getId());
         return ResponseEntity.ok(map);
     }
 
@@ -82,26 +78,15 @@ public class AppointmentController {
      * (appointments with a start time greater than or equal to the current time),
      * ordered by appointment time. Requires a valid JWT token belonging to a doctor.
      *
-     * @param token JWT token for doctor authentication
+     * @param principal Doctor resolved from the token
      * @return ResponseEntity with list of upcoming appointments or error message
      *         if token validation fails
      */
     @GetMapping("/upcoming/{patientName}/{token}")
     public ResponseEntity<Map<String,Object>> getUpcomingAppointments(
             @PathVariable String patientName,
-            @PathVariable String token) {
-
-        Map<String, Object> body = new HashMap<>();
-        ResponseEntity<Map<String,String>> temp = service.validateToken(token, "doctor");
-        Map<String,String> tempBody = temp.getBody();
-
-        if (temp.getStatusCode() != HttpStatus.OK ||
-            (tempBody != null && tempBody.containsKey("error"))) {
-            if (tempBody != null) body.putAll(tempBody);
-            return new ResponseEntity<>(body, temp.getStatusCode());
-        }
-
-        body = appointmentService.getUpcomingAppointments(patientName, token);
+            @PrincipalRole("doctor") AuthenticatedPrincipal principal) {
+        Map<String, Object> body = appointmentService.getUpcomingAppointments(patientName, principal.getId());
         return ResponseEntity.ok(body);
     }
 
@@ -114,53 +99,88 @@ public class AppointmentController {
      * Requires a valid JWT token belonging to a doctor.
      *
      * @param patientName Patient name substring to filter results (case-insensitive)
-     * @param token JWT token for doctor authentication
+     * @param principal Doctor resolved from the token
      * @return ResponseEntity with list of upcoming appointments filtered by patient
      *         name, or error message if token validation fails
      */
     @GetMapping("/upcoming/{token}")
     public ResponseEntity<Map<String,Object>> getUpcomingNoFilter(
-            @PathVariable String token) {
-        return getUpcomingAppointments("null", token);
+            @PrincipalRole("doctor") AuthenticatedPrincipal principal) {
+        return getUpcomingAppointments("null", principal);
     }
 
     /**
      * POST endpoint to book a new appointment.
      * 
-     * Validates patient token and appointment data. Checks doctor availability
-     * and time conflicts before booking. Returns 201 Created on success or
-     * appropriate error status with descriptive message.
+     * Validates patient token and appointment data, then books the slot in
+     * a single transaction. Returns 201 Created on success, 409 Conflict if
+     * the slot is taken or not offered, or another error status with a
+     * descriptive message. A retry carrying the same Idempotency-Key gets
+     * the first response back without booking again; reusing the key with
+     * a different body is refused with 422.
      * 
      * @param appointment Appointment details in request body
-     * @param token JWT token for patient authentication
+     * @param principal Patient resolved from the token
+     * @param idempotencyKey Optional client-chosen key identifying this booking
      * @return ResponseEntity with booking status and message
      */
     @PostMapping("/{token}")
     public ResponseEntity<Map<String, String>> bookAppointment(@RequestBody @Valid Appointment appointment,
-            @PathVariable String token) {
-
-        ResponseEntity<Map<String, String>> tempMap = service.validateToken(token, "patient");
-        if (tempMap.getBody().isEmpty()) {
-            return tempMap;
-        }
-
-        Map<String, String> response = new HashMap<>();
-        int out = service.validateAppointment(appointment);
-        if (out == 1) {
-            int res = appointmentService.bookAppointment(appointment);
-            if (res == 1) {
-                response.put("message", "Appointment Booked Successfully");
-                return ResponseEntity.status(HttpStatus.CREATED).body(response); // 201 Created
-            }
-            response.put("message", "Internal Server Error");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response); // 409 Conflict
-        } else if (out == -1) {
-            response.put("message", "Invalid doctor id");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        }
-
-        response.put("message", "Appointment already booked for given time or Doctor not available");
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            @PrincipalRole("patient") AuthenticatedPrincipal principal,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("POST /appointments", principal, idempotencyKey, appointment,
+                () -> appointmentService.bookAppointment(appointment, principal.getId()));
+    }
+
+    /**
+     * POST endpoint to book a recurring series of appointments.
+     * 
+     * Validates patient token, then books every occurrence for the patient
+     * the token belongs to in one transaction. Returns 201 Created with the
+     * booked times, or 409 Conflict with the occurrences that are taken or
+     * not offered, in which case none are booked.
+     * 
+     * @param series Doctor, first visit time, number of visits and weeks between them
+     * @param principal Patient resolved from the token
+     * @return ResponseEntity with booking status and message
+     */
+    @PostMapping("/series/{token}")
+    public ResponseEntity<Map<String, Object>> bookAppointmentSeries(@RequestBody @Valid AppointmentSeries series,
+            @PrincipalRole("patient") AuthenticatedPrincipal principal) {
+        return appointmentService.bookSeries(series, principal.getId());
+    }
+
+    /**
+     * POST endpoint to hold a slot while the patient confirms the booking.
+     * 
+     * Validates patient token, then hides the slot from availability and
+     * keeps other patients from booking it for a short time. Returns 201
+     * Created with the hold duration, or 409 Conflict if the slot is not
+     * offered, already booked or held by someone else.
+     * 
+     * @param hold Doctor and slot start time in request body
+     * @param principal Patient resolved from the token
+     * @return ResponseEntity with hold status and message
+     */
+    @PostMapping("/holds/{token}")
+    public ResponseEntity<Map<String, Object>> holdSlot(@RequestBody @Valid SlotHold hold,
+            @PrincipalRole("patient") AuthenticatedPrincipal principal) {
+        return appointmentService.holdSlot(hold.getDoctorId(), hold.getAppointmentTime(), principal.getId());
+    }
+
+    /**
+     * DELETE endpoint to release the patient's hold on a slot.
+     * 
+     * @param doctorId Doctor of the held slot
+     * @param appointmentTime ISO date-time of the held slot
+     * @param principal Patient resolved from the token
+     * @return ResponseEntity with release status and message
+     */
+    @DeleteMapping("/holds/{doctorId}/{appointmentTime}/{token}")
+    public ResponseEntity<Map<String, String>> releaseHold(@PathVariable Long doctorId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime appointmentTime,
+            @PrincipalRole("patient") AuthenticatedPrincipal principal) {
+        return appointmentService.releaseHold(doctorId, appointmentTime, principal.getId());
     }
 
     /**
@@ -168,17 +188,21 @@ public class AppointmentController {
      * 
      * Validates patient token matches appointment owner. Allows rescheduling
      * or updating appointment details. Checks new time slot availability.
+     * A retry carrying the same Idempotency-Key gets the first response
+     * back without updating again; reusing the key with a different body
+     * is refused with 422.
      * 
-     * @param token JWT token for patient authentication
      * @param appointment Updated appointment data with ID
+     * @param principal Patient resolved from the token
+     * @param idempotencyKey Optional client-chosen key identifying this update
      * @return ResponseEntity with update status and message
      */
     @PutMapping("/{token}")
-    public ResponseEntity<Map<String, String>> updateAppointment(@PathVariable String token, @RequestBody @Valid Appointment appointment) {
-        ResponseEntity<Map<String, String>> tempMap = service.validateToken(token, "patient");
-        if (tempMap.getBody().isEmpty()) return tempMap;
-
-        return appointmentService.updateAppointment(appointment);   
+    public ResponseEntity<Map<String, String>> updateAppointment(@RequestBody @Valid Appointment appointment,
+            @PrincipalRole("patient") AuthenticatedPrincipal principal,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("PUT /appointments", principal, idempotencyKey, appointment,
+                () -> appointmentService.updateAppointment(appointment, principal.getId()));
     }
 
     /**
@@ -189,14 +213,12 @@ public class AppointmentController {
      * status based on operation result.
      * 
      * @param id Appointment ID to cancel
-     * @param token JWT token for patient authentication
+     * @param principal Patient resolved from the token
      * @return ResponseEntity with cancellation status and message
      */
     @DeleteMapping("/{id}/{token}")
-    public ResponseEntity<Map<String, String>>  cancelAppointment(@PathVariable Long id, @PathVariable String token) {
-        ResponseEntity<Map<String, String>> tempMap = service.validateToken(token, "patient");
-        if (tempMap.getBody().isEmpty()) return tempMap;
-
-        return appointmentService.cancelAppointment(id,token);
+    public ResponseEntity<Map<String, String>>  cancelAppointment(@PathVariable Long id,
+            @PrincipalRole("patient") AuthenticatedPrincipal principal) {
+        return appointmentService.cancelAppointment(id,principal.getId());
     }
 }
\ No newline at end of file
@@ -1,10 +1,15 @@
 package com.project.back_end.controllers;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,14 +19,21 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import com.project.back_end.DTO.DoctorQuery;
 import com.project.back_end.DTO.Login;
 import com.project.back_end.DTO.DoctorUpdateDTO;
+import com.project.back_end.config.PrincipalRole;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.LoginThrottle;
 import com.project.back_end.services.Service;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 
@@ -36,14 +48,28 @@ import jakarta.validation.Valid;
 @RequestMapping("${api.path}"+"doctor")
 public class DoctorController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_AVAILABILITY_DAYS = 31;
+
+    // Serve the unpaginated listing unless the client asks for a page
+    @Value("${clinic.directory.legacy-listing:true}")
+    private boolean legacyListing;
+
+    @Value("${clinic.directory.page-size:20}")
+    private int defaultPageSize;
+
     private final AdminController adminController;
     private final DoctorService doctorService;
     private final Service service;
+    private final LoginThrottle loginThrottle;
 
-    public DoctorController(DoctorService doctorService,Service service, AdminController adminController) {
+    public DoctorController(DoctorService doctorService,Service service, AdminController adminController,
+            LoginThrottle loginThrottle) {
         this.doctorService = doctorService;
         this.service = service;
         this.adminController = adminController;
+        this.loginThrottle = loginThrottle;
     }
 
     /**
@@ -53,25 +79,101 @@ public class DoctorController {
      * for the specified doctor on the given date. User type must match the
      * token role for authorization.
      * 
-     * @param user User type (patient/doctor/admin) for role validation
      * @param doctorId ID of doctor to check availability
      * @param date ISO format date (YYYY-MM-DD) to check
-     * @param token JWT token for authentication
+     * @param principal Caller resolved from the token; its role must match the {@code user} path segment
      * @return ResponseEntity with availability data or error message
      */
     @GetMapping("/availability/{user}/{doctorId}/{date}/{token}")
     public ResponseEntity<Map<String,Object>> getDoctorAvailability(
-            @PathVariable String user, @PathVariable Long doctorId, 
+            @PathVariable Long doctorId,
             @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
-            @PathVariable String token) {
+            @PrincipalRole(pathVariable = "user") AuthenticatedPrincipal principal) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("message",doctorService.getDoctorAvailability(doctorId,date));
+        return ResponseEntity.status(HttpStatus.OK).body(map);
+    }
+
+    /**
+     * Gets doctor availability for every day of a date range.
+     * 
+     * Validates user token before processing. Returns the open time slots
+     * per day, keyed by ISO date, so a week view needs one call instead
+     * of seven. Ranges longer than 31 days or ending before they start
+     * are rejected with 400.
+     * 
+     * @param doctorId ID of doctor to check availability
+     * @param startDate First day (YYYY-MM-DD), inclusive
+     * @param endDate Last day (YYYY-MM-DD), inclusive
+     * @param principal Caller resolved from the token; its role must match the {@code user} path segment
+     * @return ResponseEntity with availability per day or error message
+     */
+    @GetMapping("/availability/{user}/{doctorId}/{startDate}/{endDate}/{token}")
+    public ResponseEntity<Map<String,Object>> getDoctorAvailabilityRange(
+            @PathVariable Long doctorId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @PrincipalRole(pathVariable = "user") AuthenticatedPrincipal principal) {
         Map<String, Object> map = new HashMap<>();
-        ResponseEntity<Map<String,String>> tempMap= service.validateToken(token, user);
-        if (tempMap.getBody().isEmpty()) {
-            map.putAll(tempMap.getBody());
-            return new ResponseEntity<>(map, tempMap.getStatusCode());
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days < 1 || days > MAX_AVAILABILITY_DAYS) {
+            map.put("message", "Date range must cover 1 to " + MAX_AVAILABILITY_DAYS + " days");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(map);
         }
 
-        map.put("message",doctorService.getDoctorAvailability(doctorId,date));
+        Map<LocalDate, List<String>> availability =
+                doctorService.getDoctorAvailability(doctorId, startDate, endDate);
+        if (availability == null) {
+            map.put("message", "Doctor not found with ID: " + doctorId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(map);
+        }
+        map.put("message", availability);
+        return ResponseEntity.status(HttpStatus.OK).body(map);
+    }
+
+    /**
+     * Gets open slots on one date for many doctors at once.
+     * 
+     * Validates user token before processing. Takes either a list of
+     * doctor ids or the same name, speciality and time filters as the
+     * filter endpoint, in which case the first page of matches (up to
+     * {@code limit}, at most 100) is used. Returns open slots keyed by
+     * doctor id so a page of doctor cards needs a single call.
+     * 
+     * @param date ISO format date (YYYY-MM-DD) to check
+     * @param principal Caller resolved from the token; its role must match the {@code user} path segment
+     * @param ids Doctor ids to check; takes precedence over the filters
+     * @param name Doctor name filter
+     * @param speciality Specialty filter
+     * @param time "AM" or "PM" filter
+     * @param limit Number of matching doctors to check, capped at 100
+     * @return ResponseEntity with open slots per doctor or error message
+     */
+    @GetMapping("/availability/{user}/{date}/{token}")
+    public ResponseEntity<Map<String,Object>> getBulkAvailability(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @PrincipalRole(pathVariable = "user") AuthenticatedPrincipal principal,
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String speciality,
+            @RequestParam(required = false) String time,
+            @RequestParam(required = false) Integer limit) {
+        Map<String, Object> map = new HashMap<>();
+        if (ids != null && !ids.isEmpty()) {
+            if (ids.size() > MAX_PAGE_SIZE) {
+                map.put("message", "At most " + MAX_PAGE_SIZE + " doctor ids per request");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(map);
+            }
+            map.put("message", doctorService.getOpenSlots(ids, date));
+            return ResponseEntity.status(HttpStatus.OK).body(map);
+        }
+
+        DoctorQuery query = new DoctorQuery();
+        query.setName(name);
+        query.setSpecialty(speciality);
+        query.setPeriod(time);
+        query.setLimit(Math.min(limit == null || limit < 1 ? defaultPageSize : limit, MAX_PAGE_SIZE));
+        map.put("message", doctorService.getOpenSlots(query, date));
         return ResponseEntity.status(HttpStatus.OK).body(map);
     }
 
@@ -80,11 +182,24 @@ public class DoctorController {
      * 
      * Public endpoint that returns list of all doctors in the system.
      * Used for displaying doctors on public pages. No filtering applied.
+     * Returns a keyset page when a cursor or limit is given, or always when
+     * the legacy listing is switched off. Answers 304 Not Modified when
+     * the directory has not changed since the client's ETag.
      * 
+     * @param cursor Next-page cursor from the previous response
+     * @param limit Page size, capped at 100
+     * @param sort "id" (default) or "name"
      * @return ResponseEntity with doctors array in response body
      */
     @GetMapping
-    public ResponseEntity<Map<String,Object>> getDoctor() {
+    public ResponseEntity<Map<String,Object>> getDoctor(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String sort,
+            WebRequest request) {
+        if (notModified(request)) return null;
+
+        if (!legacyListing || cursor != null || limit != null) {
+            return page(new DoctorQuery(), cursor, limit, sort);
+        }
         Map<String, Object> map = new HashMap<>();
 
         map.put("doctors",doctorService.getDoctors());
@@ -99,16 +214,13 @@ public class DoctorController {
      * operation result.
      * 
      * @param doctor Doctor object with all required fields
-     * @param token Admin JWT token for authorization
+     * @param principal Admin resolved from the token
      * @return ResponseEntity with creation status and message
      */
     @PostMapping("/{token}")
     public ResponseEntity<Map<String, String>> saveDoctor(@RequestBody @Valid Doctor doctor,
-            @PathVariable String token) {
+            @PrincipalRole("admin") AuthenticatedPrincipal principal) {
         Map<String, String> response = new HashMap<>();
-        ResponseEntity<Map<String,String>> tempMap= service.validateToken(token, "admin");
-        if (tempMap.getBody().isEmpty()) return tempMap;
-
         int res = doctorService.saveDoctor(doctor);
         if (res == 1) {
             response.put("message", "Doctor added to db");
@@ -116,6 +228,10 @@ public class DoctorController {
         } else if(res == -1) {
             response.put("message", "Doctor already exists");
             return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } else if (res == -2) {
+            response.put("message", "Server busy, please try again");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1").body(response);
         }
     
         response.put("message", "Some internal error occurred");
@@ -127,13 +243,20 @@ public class DoctorController {
      * 
      * Validates email and password combination. Returns JWT token on
      * successful authentication for subsequent API calls. No prior
-     * authentication required.
+     * authentication required. Attempts over the per-email or per-IP
+     * limit are rejected with 429 before any database lookup.
      * 
      * @param login Login object containing email and password
+     * @param request Current request, used for the client address
      * @return ResponseEntity with JWT token or error message
      */
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> doctorLogin(@RequestBody @Valid Login login) {
+    public ResponseEntity<Map<String, String>> doctorLogin(@RequestBody @Valid Login login,
+            HttpServletRequest request) {
+        if (loginThrottle.rejectAttempt("doctor", login.getEmail(), request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(Map.of("error", "Too many login attempts, please try again later"));
+        }
         return doctorService.validateDoctor(login);
     }
 
@@ -144,15 +267,13 @@ public class DoctorController {
      * Doctor must exist in system for update to succeed.
      * 
      * @param doctor Updated doctor object with ID
-     * @param token Admin JWT token for authorization
+     * @param principal Admin resolved from the token
      * @return ResponseEntity with update status and message
      */
     @PatchMapping("/{token}")
     public ResponseEntity<Map<String, String>> updateDoctor(@RequestBody @Valid DoctorUpdateDTO doctor,
-            @PathVariable String token) {
+            @PrincipalRole("admin") AuthenticatedPrincipal principal) {
         Map<String, String> response = new HashMap<>();
-        ResponseEntity<Map<String,String>> tempMap= service.validateToken(token, "admin");
-        if (tempMap.getBody().isEmpty()) return tempMap;
     
         int res = doctorService.updateDoctor(doctor);
         if (res == 1) {
@@ -174,16 +295,13 @@ public class DoctorController {
      * Returns appropriate status based on whether doctor was found.
      * 
      * @param id Doctor ID to delete
-     * @param token Admin JWT token for authorization
+     * @param principal Admin resolved from the token
      * @return ResponseEntity with deletion status and message
      */
     @DeleteMapping("/{id}/{token}")
     public ResponseEntity<Map<String, String>> deleteDoctor(@PathVariable long id,
-            @PathVariable String token) {
+            @PrincipalRole("admin") AuthenticatedPrincipal principal) {
         Map<String, String> response = new HashMap<>();
-        ResponseEntity<Map<String,String>> tempMap= service.validateToken(token, "admin");
-        if (tempMap.getBody().isEmpty()) return tempMap;
-
         int res = doctorService.deleteDoctor(id);
         if (res == 1) {
             response.put("message", "Doctor deleted successfull with id: "+id);
@@ -201,20 +319,101 @@ public class DoctorController {
      * 
      * Public endpoint for searching doctors. Applies name (partial match),
      * available time, and specialty filters. Pass "null" string to skip
-     * any filter criteria.
+     * any filter criteria. Answers 304 Not Modified when the directory
+     * has not changed since the client's ETag.
      * 
      * @param name Doctor name for partial match search
      * @param time Available time slot to filter by
      * @param speciality Medical specialty to filter by
+     * @param cursor Next-page cursor from the previous response
+     * @param limit Page size, capped at 100
+     * @param sort "id" (default) or "name"
      * @return ResponseEntity with filtered doctors array
      */
     @GetMapping("/filter/{name}/{time}/{speciality}")
     public ResponseEntity<Map<String, Object>> filter(
-            @PathVariable String name, @PathVariable String time, @PathVariable String speciality) {
+            @PathVariable String name, @PathVariable String time, @PathVariable String speciality,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort, WebRequest request) {
+        if (notModified(request)) return null;
+
+        if (!legacyListing || cursor != null || limit != null) {
+            return page(DoctorQuery.fromFilterPath(name, speciality, time), cursor, limit, sort);
+        }
         Map<String,Object> map = new HashMap<>();
         
         map = service.filterDoctor(name, speciality, time);
         return ResponseEntity.status(HttpStatus.OK).body(map);
     }
 
+    /**
+     * Returns facet counts for the doctor filter dropdowns.
+     * 
+     * Public endpoint taking the same path criteria as the filter endpoint.
+     * Counts doctors per specialty and per AM/PM period, each narrowed by
+     * the other selected criteria, plus the total matching all of them.
+     * 
+     * @param name Doctor name for partial match search
+     * @param time Selected period ("AM"/"PM")
+     * @param speciality Selected specialty
+     * @return ResponseEntity with specialties, periods and total
+     */
+    @GetMapping("/facets/{name}/{time}/{speciality}")
+    public ResponseEntity<Map<String, Object>> facets(
+            @PathVariable String name, @PathVariable String time, @PathVariable String speciality,
+            WebRequest request) {
+        if (notModified(request)) return null;
+
+        Map<String, Object> map = doctorService.getFacets(DoctorQuery.fromFilterPath(name, speciality, time));
+        return ResponseEntity.status(HttpStatus.OK).body(map);
+    }
+
+    /**
+     * Suggests doctors and specialties for the search box.
+     * 
+     * Public, lightweight endpoint meant to be called per keystroke.
+     * Returns only the type, ID and label of each match.
+     * 
+     * @param q Text typed so far
+     * @param limit Maximum number of suggestions, capped at 20
+     * @return ResponseEntity with suggestions array
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggest(@RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit, WebRequest request) {
+        if (notModified(request)) return null;
+
+        Map<String, Object> map = doctorService.suggest(q, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+        return ResponseEntity.status(HttpStatus.OK).body(map);
+    }
+
+    /**
+     * Sets the directory ETag and checks it against If-None-Match. A
+     * response only changes with the directory version, so a match is
+     * answered before any lookup or serialization.
+     */
+    private boolean notModified(WebRequest request) {
+        String version = doctorService.getDirectoryVersion();
+        return version != null && request.checkNotModified("\"" + version + "\"");
+    }
+
+    private ResponseEntity<Map<String, Object>> page(DoctorQuery query, String cursor, Integer limit,
+            String sort) {
+        Map<String, Object> map = new HashMap<>();
+        String order = sort == null ? "id" : sort.toLowerCase(Locale.ROOT);
+        if (!order.equals("id") && !order.equals("name")) {
+            map.put("error", "Invalid sort");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(map);
+        }
+        query.setSort(order.equals("name") ? DoctorQuery.Sort.NAME : DoctorQuery.Sort.ID);
+        query.setLimit(Math.min(limit == null || limit < 1 ? defaultPageSize : limit, MAX_PAGE_SIZE));
+
+        try {
+            return ResponseEntity.status(HttpStatus.OK).body(doctorService.pageDoctors(query, cursor));
+        } catch (IllegalArgumentException e) {
+            map.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(map);
+        }
+    }
+
 }
\ No newline at end of file
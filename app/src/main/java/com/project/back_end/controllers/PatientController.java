@@ -1,15 +1,20 @@
 package com.project.back_end.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.project.back_end.DTO.AuthenticatedPrincipal;
 import com.project.back_end.DTO.Login;
+import com.project.back_end.config.PrincipalRole;
 import com.project.back_end.models.Patient;
+import com.project.back_end.services.LoginThrottle;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.Service;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import java.util.HashMap;
@@ -21,22 +26,19 @@ public class PatientController {
 
     private final PatientService patientService;
     private final Service service;
+    private final LoginThrottle loginThrottle;
 
     @Autowired
-    public PatientController(PatientService patientService,Service service) {
+    public PatientController(PatientService patientService,Service service, LoginThrottle loginThrottle) {
         this.patientService = patientService;
         this.service = service;
+        this.loginThrottle = loginThrottle;
     }
 
     @GetMapping("/{token}")
-    public ResponseEntity<Map<String, Object>> getPatientData(@PathVariable String token) {
-        Map<String, Object> map = new HashMap<>();
-        ResponseEntity<Map<String,String>> tempMap= service.validateToken(token, "patient");
-        if (tempMap.getBody().isEmpty()) {
-            map.putAll(tempMap.getBody());
-            return new ResponseEntity<>(map, tempMap.getStatusCode());
-        }
-        return patientService.getPatientDetails(token);
+    public ResponseEntity<Map<String, Object>> getPatientData(
+            @PrincipalRole("patient") AuthenticatedPrincipal principal) {
+        return patientService.getPatientDetails(principal.getId());
     }
 
     @PostMapping()
@@ -48,6 +50,11 @@ public class PatientController {
                 map.put("message","Signup successfull");
                 return ResponseEntity.status(HttpStatus.CREATED).body(map); // 201 Created
             }
+            if (res == -1) {
+                map.put("message","Too many sign-ups, please try again");
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1").body(map);
+            }
             if (res == 0) {
                 map.put("message","Internal server error");
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(map);
@@ -58,34 +65,33 @@ public class PatientController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestBody Login login ) {
+    public ResponseEntity<Map<String, String>> login(@RequestBody Login login, HttpServletRequest request) {
+        if (loginThrottle.rejectAttempt("patient", login.getEmail(), request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(Map.of("error", "Too many login attempts, please try again later"));
+        }
         return service.validatePatientLogin(login);   
     }
 
 
     @GetMapping("/{id}/{user}/{token}")
     public ResponseEntity<Map<String,Object>> getPatientAppointment(@PathVariable Long id,
-            @PathVariable String token, @PathVariable String user) {
+            @PrincipalRole(pathVariable = "user") AuthenticatedPrincipal principal) {
         Map<String, Object> map = new HashMap<>();
-        ResponseEntity<Map<String,String>> tempMap = service.validateToken(token, user);
-        if (tempMap.getBody().isEmpty()) {
-            map.putAll(tempMap.getBody());
-            return new ResponseEntity<>(map, tempMap.getStatusCode());
+
+        // Patients may only read their own appointments
+        if ("patient".equals(principal.getRole()) && !principal.getId().equals(id)) {
+            map.put("error", "Patient Id mismatch");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(map);
         }
 
-        return patientService.getPatientAppointment(id,token);
+        return patientService.getPatientAppointment(id);
     }
 
     @GetMapping("/filter/{condition}/{name}/{token}")
     public ResponseEntity<Map<String,Object>> filterPatientAppointment(
-            @PathVariable String condition, @PathVariable String name, @PathVariable String token) {
-        Map<String, Object> map = new HashMap<>();
-        ResponseEntity<Map<String,String>> tempMap = service.validateToken(token, "patient");
-        if (tempMap.getBody().isEmpty()) {
-            map.putAll(tempMap.getBody());
-            return new ResponseEntity<>(map, tempMap.getStatusCode());
-        }
-
-        return service.filterPatient(condition,name,token);
+            @PathVariable String condition, @PathVariable String name,
+            @PrincipalRole("patient") AuthenticatedPrincipal principal) {
+        return service.filterPatient(condition,name,principal.getId());
     }
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.project.back_end.controllers;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,13 +8,16 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import com.project.back_end.config.PrincipalRole;
 import com.project.back_end.models.Prescription;
 import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.IdempotencyStore;
 import com.project.back_end.services.PrescriptionService;
-import com.project.back_end.services.Service;
 
 import jakarta.validation.Valid;
 
@@ -24,36 +26,31 @@ import jakarta.validation.Valid;
 public class PrescriptionController {
 
     private final PrescriptionService prescriptionService;
-    private final Service service;
     private final AppointmentService appointmentService;
+    private final IdempotencyStore idempotencyStore;
 
     @Autowired
     public PrescriptionController(PrescriptionService prescriptionService,
-            Service service,AppointmentService appointmentService) {
+            AppointmentService appointmentService, IdempotencyStore idempotencyStore) {
         this.prescriptionService = prescriptionService;
-        this.service = service;
         this.appointmentService = appointmentService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @PostMapping("/{token}")
     public ResponseEntity<Map<String, String>> savePrescription(
-            @PathVariable String token, @RequestBody @Valid Prescription prescription) {
-        ResponseEntity<Map<String, String>> tempMap = service.validateToken(token, "doctor");
-        if (tempMap.getBody().isEmpty()) return tempMap;
-
-        appointmentService.changeStatus(prescription.getApptId());
-        return prescriptionService.savePrescription(prescription);
+            @RequestBody @Valid Prescription prescription,
+            @PrincipalRole("doctor") AuthenticatedPrincipal principal,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("POST /prescription", principal, idempotencyKey, prescription, () -> {
+            appointmentService.changeStatus(prescription.getApptId());
+            return prescriptionService.savePrescription(prescription);
+        });
     }
 
     @GetMapping("/{appointmentId}/{token}")
     public ResponseEntity<Map<String, Object>> getPrescription(
-        @PathVariable Long appointmentId,@PathVariable String token) {
-        Map<String, Object> map = new HashMap<>();
-        ResponseEntity<Map<String,String>> tempMap= service.validateToken(token, "doctor");
-        if (tempMap.getBody().isEmpty()) {
-            map.putAll(tempMap.getBody());
-            return new ResponseEntity<>(map, tempMap.getStatusCode());
-        }
+        @PathVariable Long appointmentId, @PrincipalRole("doctor") AuthenticatedPrincipal principal) {
         return prescriptionService.getPrescription(appointmentId);
     }
 }
\ No newline at end of file
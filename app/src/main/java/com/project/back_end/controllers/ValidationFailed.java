@@ -7,6 +7,8 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.validation.FieldError;
 
+import com.project.back_end.config.PrincipalRejectedException;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,4 +26,11 @@ public class ValidationFailed {
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
+
+    @ExceptionHandler(PrincipalRejectedException.class)
+    public ResponseEntity<Map<String, String>> handlePrincipalRejected(PrincipalRejectedException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errors);
+    }
 }
\ No newline at end of file
@@ -2,19 +2,29 @@ package com.project.back_end.models;
 
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 @Entity
+@Table(indexes = @Index(name = "ix_doctor_specialty_id", columnList = "specialty_id"))
 public class Doctor {
 
     @Id
@@ -25,15 +35,22 @@ public class Doctor {
     @Size(min = 3, max = 100)
     private String name;
 
+    // Specialty name as sent by clients; stored through specialtyRef
     @NotNull(message = "Specialty must not be null")
     @Size(min = 3, max = 50)
+    @Transient
     private String specialty;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "specialty_id")
+    @JsonIgnore
+    private Specialty specialtyRef;
     
     @Email
     @NotNull(message = "Email must not be null")
     private String email;
 
-    @Size(min = 6, max = 20,
+    @Size(min = 6, max = 72,
     	  message = "The password must be between {min} and {max} characters")
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
@@ -43,6 +60,7 @@ public class Doctor {
     private String phone;
 
     @ElementCollection
+    @BatchSize(size = 50)
     private List<String> availableTimes;
 
     // Getters
@@ -55,7 +73,12 @@ public class Doctor {
     }
 
     public String getSpecialty() {
-        return specialty;
+        return specialtyRef != null ? specialtyRef.getName() : specialty;
+    }
+
+    @JsonIgnore
+    public Specialty getSpecialtyRef() {
+        return specialtyRef;
     }
 
     public String getEmail() {
@@ -86,6 +109,12 @@ public class Doctor {
 
     public void setSpecialty(String specialty) {
         this.specialty = specialty;
+        this.specialtyRef = null;
+    }
+
+    public void setSpecialtyRef(Specialty specialtyRef) {
+        this.specialtyRef = specialtyRef;
+        this.specialty = specialtyRef == null ? null : specialtyRef.getName();
     }
 
     public void setEmail(String email) {
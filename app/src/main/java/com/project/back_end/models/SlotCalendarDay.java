@@ -0,0 +1,125 @@
+package com.project.back_end.models;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * Booked slots of one doctor on one day, as a {@link SlotMask}.
+ *
+ * Maintained in the same transaction as every appointment insert, move
+ * and delete, so a day's availability is the doctor's offered slots minus
+ * this mask, read by primary key. Days without bookings have no row.
+ * New instances report themselves as new, so saving one is a plain
+ * INSERT rather than a merge that first selects the key.
+ */
+@Entity
+@Table(name = "slot_calendar")
+@IdClass(SlotCalendarDay.Key.class)
+public class SlotCalendarDay implements Persistable<SlotCalendarDay.Key> {
+
+    @Id
+    private Long doctorId;
+
+    @Id
+    private LocalDate slotDate;
+
+    private long bookedMask;
+
+    @Transient
+    private boolean isNew = true;
+
+    // No Argument Constructor for JPA
+    public SlotCalendarDay() {
+    }
+
+    public SlotCalendarDay(Long doctorId, LocalDate slotDate, long bookedMask) {
+        this.doctorId = doctorId;
+        this.slotDate = slotDate;
+        this.bookedMask = bookedMask;
+    }
+
+    // Getters
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDate getSlotDate() {
+        return slotDate;
+    }
+
+    public long getBookedMask() {
+        return bookedMask;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(doctorId, slotDate);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    /**
+     * Adds slots to the booked mask. Only safe on a row locked by the
+     * current transaction; otherwise use the relative repository update.
+     */
+    public void book(long slots) {
+        this.bookedMask |= slots;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    /**
+     * Composite primary key: doctor and day.
+     */
+    public static class Key implements Serializable {
+
+        private Long doctorId;
+        private LocalDate slotDate;
+
+        public Key() {
+        }
+
+        public Key(Long doctorId, LocalDate slotDate) {
+            this.doctorId = doctorId;
+            this.slotDate = slotDate;
+        }
+
+        public Long getDoctorId() {
+            return doctorId;
+        }
+
+        public LocalDate getSlotDate() {
+            return slotDate;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof Key key)) return false;
+            return Objects.equals(doctorId, key.doctorId) && Objects.equals(slotDate, key.slotDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(doctorId, slotDate);
+        }
+    }
+}
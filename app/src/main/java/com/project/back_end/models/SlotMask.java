@@ -0,0 +1,107 @@
+package com.project.back_end.models;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bitmask representation of a doctor's one-hour slots within a day.
+ *
+ * Bit {@code i} of a {@code long} is set when a slot starts at
+ * {@code i * 30} minutes past midnight, so a whole day fits in the low 48
+ * bits. Availability, booked slots and time-of-day windows are all masks,
+ * and filtering, subtraction and booking checks are single bitwise
+ * operations. The "HH:mm-HH:mm" strings exchanged with clients are only
+ * parsed and formatted here.
+ */
+public final class SlotMask {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    public static final long NONE = 0L;
+    public static final long ALL_DAY = (1L << SLOTS_PER_DAY) - 1;
+    public static final long MORNING = (1L << (SLOTS_PER_DAY / 2)) - 1;
+    public static final long AFTERNOON = ALL_DAY & ~MORNING;
+
+    private static final String[] LABELS = new String[SLOTS_PER_DAY];
+
+    static {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
+        for (int i = 0; i < SLOTS_PER_DAY; i++) {
+            LocalTime start = LocalTime.MIDNIGHT.plusMinutes((long) i * SLOT_MINUTES);
+            LABELS[i] = start.format(formatter) + "-" + start.plusHours(1).format(formatter);
+        }
+    }
+
+    private SlotMask() {
+    }
+
+    /**
+     * Builds a mask from slot strings such as "09:00-10:00".
+     * Entries that are malformed or do not start on a half hour are skipped.
+     */
+    public static long parse(List<String> slots) {
+        if (slots == null) return NONE;
+
+        long mask = NONE;
+        for (String slot : slots) {
+            mask |= parseStart(slot);
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the bit for a slot starting at the given time, or
+     * {@link #NONE} if the time does not fall on a half hour.
+     */
+    public static long of(LocalTime start) {
+        if (start.getSecond() != 0 || start.getNano() != 0 || start.getMinute() % SLOT_MINUTES != 0) {
+            return NONE;
+        }
+        return 1L << ((start.getHour() * 60 + start.getMinute()) / SLOT_MINUTES);
+    }
+
+    public static boolean contains(long mask, LocalTime start) {
+        long bit = of(start);
+        return bit != NONE && (mask & bit) != 0;
+    }
+
+    /**
+     * Window for the dashboard's time filter: "AM" selects slots starting
+     * before noon, any other value slots from noon on, and a blank value
+     * the whole day.
+     */
+    public static long forPeriod(String amOrPm) {
+        if (amOrPm == null || amOrPm.isBlank()) return ALL_DAY;
+        return amOrPm.equalsIgnoreCase("am") ? MORNING : AFTERNOON;
+    }
+
+    /**
+     * Formats a mask as "HH:mm-HH:mm" strings in time order.
+     */
+    public static List<String> format(long mask) {
+        List<String> slots = new ArrayList<>(Long.bitCount(mask));
+        for (long rest = mask & ALL_DAY; rest != 0; rest &= rest - 1) {
+            slots.add(LABELS[Long.numberOfTrailingZeros(rest)]);
+        }
+        return slots;
+    }
+
+    private static long parseStart(String slot) {
+        if (slot == null || slot.length() < 5 || slot.charAt(2) != ':') return NONE;
+
+        int hour = digits(slot, 0);
+        int minute = digits(slot, 3);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || minute % SLOT_MINUTES != 0) return NONE;
+        return 1L << ((hour * 60 + minute) / SLOT_MINUTES);
+    }
+
+    private static int digits(String s, int at) {
+        char tens = s.charAt(at);
+        char ones = s.charAt(at + 1);
+        if (tens < '0' || tens > '9' || ones < '0' || ones > '9') return -1;
+        return (tens - '0') * 10 + (ones - '0');
+    }
+}
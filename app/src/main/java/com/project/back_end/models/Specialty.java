@@ -0,0 +1,53 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Medical specialty referenced by doctors through a small integer key.
+ * Names are stored in canonical form ("Cardiologist") and are unique
+ * regardless of case.
+ */
+@Entity
+public class Specialty {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @NotNull(message = "Specialty must not be null")
+    @Size(min = 3, max = 50)
+    @Column(unique = true)
+    private String name;
+
+    // No Argument Constructor for JPA
+    public Specialty() {
+    }
+
+    public Specialty(String name) {
+        this.name = name;
+    }
+
+    // Getters
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Setters
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -1,5 +1,7 @@
 package com.project.back_end.repo;
 
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.BookedSlotRow;
 import com.project.back_end.models.Appointment;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -13,24 +15,33 @@ import java.util.List;
 /**
  * Repository for Appointment entity.
  * Provides basic CRUD and custom queries for managing appointment data.
+ * Reads that feed an AppointmentDTO select its ten columns straight into
+ * the DTO, so no Appointment, Doctor or Patient entities (nor patient
+ * passwords) are loaded or tracked by the persistence context.
  */
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
-    @Query("SELECT a FROM Appointment a " +
-           "JOIN a.doctor d WHERE d.id = :doctorId " +
+    String DTO_SELECT = "SELECT new com.project.back_end.DTO.AppointmentDTO(" +
+            "a.id, d.id, d.name, p.id, p.name, p.email, p.phone, p.address, a.appointmentTime, a.status) " +
+            "FROM Appointment a JOIN a.doctor d JOIN a.patient p ";
+
+    @Query(DTO_SELECT + "WHERE d.id = :doctorId " +
            "AND a.appointmentTime BETWEEN :start AND :end")
-    List<Appointment> findByDoctorIdAndAppointmentTimeBetween(
+    List<AppointmentDTO> findByDoctorIdAndAppointmentTimeBetween(
         @Param("doctorId") Long doctorId,
         @Param("start") LocalDateTime start,
         @Param("end") LocalDateTime end
     );
 
-    @Query("SELECT a FROM Appointment a " + "LEFT JOIN FETCH a.patient p " + 
-           "LEFT JOIN FETCH a.doctor d " + "WHERE d.id = :doctorId " +
+    @Query("SELECT a.doctor.id AS doctorId, a.appointmentTime AS appointmentTime " +
+           "FROM Appointment a WHERE a.appointmentTime >= :from")
+    List<BookedSlotRow> findBookedSlotsFrom(@Param("from") LocalDateTime from);
+
+    @Query(DTO_SELECT + "WHERE d.id = :doctorId " +
            "AND LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%')) " +
            "AND a.appointmentTime BETWEEN :start AND :end")
-    List<Appointment> findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
+    List<AppointmentDTO> findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
             @Param("doctorId") Long doctorId,
             @Param("patientName") String patientName,
             @Param("start") LocalDateTime start,
@@ -40,23 +51,25 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Transactional
     void deleteAllByDoctorId(Long doctorId);
 
-    //@Query("SELECT a FROM Appointment a "+ "LEFT JOIN FETCH a.patient p " + "WHERE p.id = :patientId ")
-    List<Appointment> findByPatientId(Long patientId);
+    @Query(DTO_SELECT + "WHERE p.id = :patientId")
+    List<AppointmentDTO> findByPatientId(@Param("patientId") Long patientId);
 
-    List<Appointment> findByPatient_IdAndStatusOrderByAppointmentTimeAsc(
-       Long patientId, int status);
+    @Query(DTO_SELECT + "WHERE p.id = :patientId AND a.status = :status " +
+           "ORDER BY a.appointmentTime ASC")
+    List<AppointmentDTO> findByPatient_IdAndStatusOrderByAppointmentTimeAsc(
+       @Param("patientId") Long patientId, @Param("status") int status);
 
-    @Query("SELECT a FROM Appointment a " + "JOIN a.doctor d " +
+    @Query(DTO_SELECT +
            "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) " +
-           "AND a.patient.id = :patientId")
-    List<Appointment> filterByDoctorNameAndPatientId(
+           "AND p.id = :patientId")
+    List<AppointmentDTO> filterByDoctorNameAndPatientId(
         @Param("doctorName") String doctorName,
         @Param("patientId") Long patientId);
 
-    @Query("SELECT a FROM Appointment a " + "JOIN a.doctor d " +
+    @Query(DTO_SELECT +
            "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%')) " +
-           "AND a.patient.id = :patientId " + "AND a.status = :status")
-    List<Appointment> filterByDoctorNameAndPatientIdAndStatus(
+           "AND p.id = :patientId " + "AND a.status = :status")
+    List<AppointmentDTO> filterByDoctorNameAndPatientIdAndStatus(
         @Param("doctorName") String doctorName,
         @Param("patientId") Long patientId,
         @Param("status") int status);
@@ -65,15 +78,15 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("UPDATE Appointment a SET a.status = :status WHERE a.id = :id")
     void updateStatus(int status,long id);
 
-    @Query("SELECT a FROM Appointment a " + "WHERE a.doctor.id = :doctorId " +
+    @Query(DTO_SELECT + "WHERE d.id = :doctorId " +
            "AND a.appointmentTime >= :now ORDER BY a.appointmentTime ASC")
-    List<Appointment> findUpcomingByDoctor(@Param("doctorId") Long doctorId,
+    List<AppointmentDTO> findUpcomingByDoctor(@Param("doctorId") Long doctorId,
         @Param("now") java.time.LocalDateTime now);
 
-    @Query("SELECT a FROM Appointment a " + "WHERE a.doctor.id = :doctorId " +
-           "AND a.appointmentTime >= :now AND LOWER(a.patient.name) LIKE " + 
+    @Query(DTO_SELECT + "WHERE d.id = :doctorId " +
+           "AND a.appointmentTime >= :now AND LOWER(p.name) LIKE " + 
            "LOWER(CONCAT('%', :pname, '%')) ORDER BY a.appointmentTime ASC")
-    List<Appointment> findUpcomingByDoctorAndPatient(
+    List<AppointmentDTO> findUpcomingByDoctorAndPatient(
         @Param("doctorId") Long doctorId,
         @Param("now") java.time.LocalDateTime now,
         @Param("pname") String pname);
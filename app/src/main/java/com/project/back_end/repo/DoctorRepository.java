@@ -1,7 +1,9 @@
 package com.project.back_end.repo;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -10,20 +12,19 @@ import com.project.back_end.models.Doctor;
 
 /**
  * Repository interface for the Doctor entity.
- * Provides basic CRUD operations and custom queries for doctor search and filtering.
+ * Provides basic CRUD operations and the fetch-planned reads used by the
+ * doctor catalog and availability checks. Search and filtering are served
+ * from the in-memory catalog.
  */
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
     Doctor findByEmail(String email);
 
-    @Query("SELECT d FROM Doctor d WHERE d.name LIKE CONCAT('%', :name, '%')")
-    List<Doctor> findByNameLike(String name);
+    @Query("SELECT DISTINCT d FROM Doctor d LEFT JOIN FETCH d.availableTimes " +
+           "LEFT JOIN FETCH d.specialtyRef ORDER BY d.id")
+    List<Doctor> findAllWithAvailability();
 
-    @Query("SELECT d FROM Doctor d " +
-           "WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')) " +
-           "AND LOWER(d.specialty) = LOWER(:specialty)")
-    List<Doctor> findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(String name, String specialty);
-
-    List<Doctor> findBySpecialtyIgnoreCase(String specialty);
-}
\ No newline at end of file
+    @EntityGraph(attributePaths = {"availableTimes", "specialtyRef"})
+    Optional<Doctor> findWithAvailabilityById(Long id);
+}
@@ -0,0 +1,90 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.SlotCalendarDay;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repository for the per-doctor, per-day booked slot calendar.
+ * Masks are changed with bitwise updates in place so concurrent bookings
+ * on the same day never overwrite each other.
+ */
+@Repository
+public interface SlotCalendarRepository extends JpaRepository<SlotCalendarDay, SlotCalendarDay.Key> {
+
+    @Query("SELECT d.bookedMask FROM SlotCalendarDay d " +
+           "WHERE d.doctorId = :doctorId AND d.slotDate = :slotDate")
+    Optional<Long> findBookedMask(@Param("doctorId") Long doctorId, @Param("slotDate") LocalDate slotDate);
+
+    List<SlotCalendarDay> findByDoctorIdAndSlotDateBetween(Long doctorId, LocalDate start, LocalDate end);
+
+    List<SlotCalendarDay> findByDoctorIdInAndSlotDate(Collection<Long> doctorIds, LocalDate slotDate);
+
+    List<SlotCalendarDay> findBySlotDateGreaterThanEqual(LocalDate from);
+
+    // Locked in date order so two series over the same days queue instead of deadlocking
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM SlotCalendarDay d " +
+           "WHERE d.doctorId = :doctorId AND d.slotDate IN :slotDates ORDER BY d.slotDate")
+    List<SlotCalendarDay> lockDays(@Param("doctorId") Long doctorId,
+            @Param("slotDates") Collection<LocalDate> slotDates);
+
+    // Bitwise so booking a set bit or releasing a clear one is a no-op, even on a drifted row
+    @Modifying
+    @Transactional
+    @Query("UPDATE SlotCalendarDay d SET d.bookedMask = bitor(d.bookedMask, cast(:slots as Long)) " +
+           "WHERE d.doctorId = :doctorId AND d.slotDate = :slotDate")
+    int setBookedSlots(@Param("doctorId") Long doctorId, @Param("slotDate") LocalDate slotDate,
+            @Param("slots") long slots);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SlotCalendarDay d SET d.bookedMask = bitand(d.bookedMask, cast(:keep as Long)) " +
+           "WHERE d.doctorId = :doctorId AND d.slotDate = :slotDate")
+    int keepBookedSlots(@Param("doctorId") Long doctorId, @Param("slotDate") LocalDate slotDate,
+            @Param("keep") long keep);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO slot_calendar (doctor_id, slot_date, booked_mask) " +
+                   "VALUES (:doctorId, :slotDate, :bookedMask)", nativeQuery = true)
+    int insertDay(@Param("doctorId") Long doctorId, @Param("slotDate") LocalDate slotDate,
+            @Param("bookedMask") long bookedMask);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE SlotCalendarDay d SET d.bookedMask = :expected " +
+           "WHERE d.doctorId = :doctorId AND d.slotDate = :slotDate AND d.bookedMask = :seen")
+    int compareAndSetBookedMask(@Param("doctorId") Long doctorId, @Param("slotDate") LocalDate slotDate,
+            @Param("seen") long seen, @Param("expected") long expected);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM SlotCalendarDay d " +
+           "WHERE d.doctorId = :doctorId AND d.slotDate = :slotDate AND d.bookedMask = :seen")
+    int deleteIfUnchanged(@Param("doctorId") Long doctorId, @Param("slotDate") LocalDate slotDate,
+            @Param("seen") long seen);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SlotCalendarDay d WHERE d.slotDate < :before")
+    int deleteBefore(@Param("before") LocalDate before);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SlotCalendarDay d WHERE d.doctorId = :doctorId")
+    void deleteAllByDoctorId(@Param("doctorId") Long doctorId);
+}
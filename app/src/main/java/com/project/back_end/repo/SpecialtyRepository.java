@@ -0,0 +1,18 @@
+package com.project.back_end.repo;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.project.back_end.models.Specialty;
+
+/**
+ * Repository interface for the Specialty lookup table.
+ * Reads normally go through the in-memory specialty registry.
+ */
+@Repository
+public interface SpecialtyRepository extends JpaRepository<Specialty, Integer> {
+
+    Optional<Specialty> findByNameIgnoreCase(String name);
+}
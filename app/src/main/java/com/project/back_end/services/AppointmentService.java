@@ -3,78 +3,385 @@ package com.project.back_end.services;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentSeries;
 import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
+import com.project.back_end.models.SlotCalendarDay;
+import com.project.back_end.models.SlotMask;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
-import com.project.back_end.repo.PatientRepository;
 import jakarta.transaction.Transactional;
 
 /**
  * Service class for managing appointment operations.
  * 
  * Handles appointment booking, updates, cancellations, and retrieval. 
- * Integrates with repositories for data persistence and token service
- * for authentication. Provides business logic validation for appointments.
+ * Integrates with repositories for data persistence. Callers pass the
+ * principal id already resolved from the request token. Provides business
+ * logic validation for appointments.
  */
 @Service
 public class AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
-    private final com.project.back_end.services.Service service;
-    private final TokenService tokenService;
-    private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
+    private final com.project.back_end.services.Service service;
+    private final ReservationLedger reservationLedger;
+    private final SlotCalendar slotCalendar;
+    private final SlotHolds slotHolds;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBookingAttempts;
 
     public AppointmentService(AppointmentRepository appointmentRepository,
-            com.project.back_end.services.Service service, TokenService tokenService,
-            PatientRepository patientRepository, DoctorRepository doctorRepository) {
+            DoctorRepository doctorRepository,
+            com.project.back_end.services.Service service,
+            ReservationLedger reservationLedger,
+            SlotCalendar slotCalendar,
+            SlotHolds slotHolds,
+            PlatformTransactionManager transactionManager,
+            @Value("${appointments.booking.max-attempts:3}") int maxBookingAttempts) {
         this.appointmentRepository = appointmentRepository;
-        this.service = service;
-        this.tokenService = tokenService;
-        this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
+        this.service = service;
+        this.reservationLedger = reservationLedger;
+        this.slotCalendar = slotCalendar;
+        this.slotHolds = slotHolds;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBookingAttempts = Math.max(1, maxBookingAttempts);
     }
 
-     /**
+    /**
      * Books a new appointment in the system.
      * 
-     * Persists appointment data to database. Returns success/failure status
-     * for operation. Logs any exceptions that occur during save operation.
+     * A slot held by another patient in {@link SlotHolds} is refused with
+     * 409. The slot is then claimed in the {@link ReservationLedger}, so
+     * requests for a slot already taken are turned away with 409 without
+     * touching the database. The winner then loads the doctor with availability,
+     * checks the requested slot is offered, inserts the appointment and
+     * marks the slot in the {@link SlotCalendar}, all in one transaction.
+     * The unique constraint on (doctor_id, appointment_time) still decides
+     * races with other instances. Serialization and lock conflicts, and
+     * two bookings creating the same calendar day, are retried a few times
+     * before answering 503. The claim is released whenever the slot did not
+     * end up booked; a successful booking consumes the patient's hold.
+     * Holds are checked against the authenticated patient, and a body
+     * naming any other patient is refused with 400.
      * 
      * @param appointment Appointment entity with patient, doctor, and time
-     * @return 1 for success, 0 for failure
+     * @param patientId ID of the authenticated patient
+     * @return ResponseEntity with status code and message
      */
-    public int bookAppointment(Appointment appointment) {
+    public ResponseEntity<Map<String, String>> bookAppointment(Appointment appointment, Long patientId) {
+        Map<String, String> response = new HashMap<>();
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDateTime time = appointment.getApptTime();
+
+        if (appointment.getPatient() == null || !patientId.equals(appointment.getPatient().getId())) {
+            response.put("message", "Patient Id mismatch");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        if (slotHolds.isHeldByOther(doctorId, time, patientId)) {
+            response.put("message", "Slot is held by another patient");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        ReservationLedger.Claim claim = reservationLedger.tryReserve(doctorId, time);
+        if (claim == null) {
+            response.put("message", "Appointment already booked for given time");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+
+        boolean slotTaken = false;
         try {
-            appointmentRepository.save(appointment);
-            return 1;
-        } catch (Exception e) {
-            System.out.println("Error: " + e);
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    int out = transactionTemplate.execute(status -> insertIfAvailable(appointment));
+                    if (out == 1) {
+                        slotTaken = true;
+                        slotHolds.release(doctorId, time, patientId);
+                        response.put("message", "Appointment Booked Successfully");
+                        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+                    } else if (out == -1) {
+                        response.put("message", "Invalid doctor id");
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+                    }
+                    response.put("message", "Doctor not available at the given time");
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+                } catch (DataIntegrityViolationException e) {
+                    if (isSlotConflict(e)) {
+                        // Booked through another instance; keep the claim so the next request stays in memory
+                        slotTaken = true;
+                        response.put("message", "Appointment already booked for given time");
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+                    }
+                    if (SlotCalendar.isDayCreationRace(e) && attempt < maxBookingAttempts) {
+                        continue;
+                    }
+                    System.out.println("Error: " + e.getMostSpecificCause());
+                    response.put("message", "Invalid appointment data");
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+                } catch (ConcurrencyFailureException e) {
+                    if (attempt >= maxBookingAttempts) {
+                        System.out.println("Error: booking gave up after " + attempt + " attempts: " + e);
+                        response.put("message", "Booking is busy, please try again");
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+                    }
+                } catch (Exception e) {
+                    System.out.println("Error: " + e);
+                    response.put("message", "Internal Server Error");
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+                }
+            }
+        } finally {
+            if (!slotTaken) claim.release();
+        }
+    }
+
+    /**
+     * Inserts the appointment and marks its slot booked if the doctor
+     * offers the slot. Runs inside the booking transaction.
+     *
+     * @return 1 if inserted, -1 if the doctor does not exist, 0 if the slot is not offered
+     */
+    private int insertIfAvailable(Appointment appointment) {
+        Optional<Doctor> doctor = doctorRepository.findWithAvailabilityById(appointment.getDoctor().getId());
+        if (doctor.isEmpty()) {
+            return -1;
+        }
+        long offered = SlotMask.parse(doctor.get().getAvailability());
+        if (!SlotMask.contains(offered, appointment.getAppointmentTimeOnly())) {
+            return 0;
+        }
+
+        // A null id makes this a plain INSERT; slots already taken fail on the unique constraint
+        appointment.setId(null);
+        appointment.setDoctor(doctor.get());
+        appointmentRepository.saveAndFlush(appointment);
+        slotCalendar.book(doctor.get().getId(), appointment.getApptTime());
+        return 1;
+    }
+
+    /**
+     * Books a recurring series of visits with one doctor, all or nothing.
+     * 
+     * Occurrences held by another patient are refused with 409. Every
+     * occurrence is then claimed in the {@link ReservationLedger}.
+     * One transaction then loads the doctor with availability, locks the
+     * doctor's calendar days for the series and checks all occurrences
+     * against them in memory, so validation costs two queries whatever
+     * the series length. The appointments and calendar days are written
+     * at a single flush as JDBC batches. If any occurrence is not offered
+     * or already booked, nothing is written and the conflicting times are
+     * returned with 409. Retries, claim release and consuming the
+     * patient's hold follow {@link #bookAppointment}.
+     * 
+     * @param series Doctor, first visit and recurrence of the series
+     * @param patientId ID of the authenticated patient
+     * @return ResponseEntity with status code, message and the booked or conflicting times
+     */
+    public ResponseEntity<Map<String, Object>> bookSeries(AppointmentSeries series, Long patientId) {
+        Map<String, Object> response = new HashMap<>();
+        Long doctorId = series.getDoctorId();
+        List<LocalDateTime> times = series.appointmentTimes();
+
+        List<LocalDateTime> held = times.stream()
+                .filter(time -> slotHolds.isHeldByOther(doctorId, time, patientId))
+                .toList();
+        if (!held.isEmpty()) {
+            response.put("message", "Slot is held by another patient");
+            response.put("conflicts", held);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+
+        List<ReservationLedger.Claim> claims = new ArrayList<>(times.size());
+        for (LocalDateTime time : times) {
+            ReservationLedger.Claim claim = reservationLedger.tryReserve(doctorId, time);
+            if (claim == null) {
+                claims.forEach(ReservationLedger.Claim::release);
+                response.put("message", "Appointment already booked for given time");
+                response.put("conflicts", List.of(time));
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+            }
+            claims.add(claim);
+        }
+
+        boolean slotsTaken = false;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    List<LocalDateTime> conflicts = new ArrayList<>();
+                    int out = transactionTemplate.execute(
+                            status -> insertSeriesIfAvailable(doctorId, patientId, times, conflicts));
+                    if (out == 1) {
+                        slotsTaken = true;
+                        times.forEach(time -> slotHolds.release(doctorId, time, patientId));
+                        response.put("message", "Appointment Series Booked Successfully");
+                        response.put("appointmentTimes", times);
+                        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+                    } else if (out == -1) {
+                        response.put("message", "Invalid doctor id");
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+                    }
+                    response.put("message", "Doctor not available at the given time");
+                    response.put("conflicts", conflicts);
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+                } catch (DataIntegrityViolationException e) {
+                    if (isSlotConflict(e)) {
+                        response.put("message", "Appointment already booked for given time");
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+                    }
+                    if (SlotCalendar.isDayCreationRace(e) && attempt < maxBookingAttempts) {
+                        continue;
+                    }
+                    System.out.println("Error: " + e.getMostSpecificCause());
+                    response.put("message", "Invalid appointment data");
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+                } catch (ConcurrencyFailureException e) {
+                    if (attempt >= maxBookingAttempts) {
+                        System.out.println("Error: series booking gave up after " + attempt + " attempts: " + e);
+                        response.put("message", "Booking is busy, please try again");
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+                    }
+                } catch (Exception e) {
+                    System.out.println("Error: " + e);
+                    response.put("message", "Internal Server Error");
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+                }
+            }
+        } finally {
+            if (!slotsTaken) claims.forEach(ReservationLedger.Claim::release);
+        }
+    }
+
+    /**
+     * Inserts every appointment of a series and marks the slots booked if
+     * all of them are offered and free. Runs inside the booking transaction.
+     *
+     * @param conflicts Filled with the occurrences that cannot be booked
+     * @return 1 if inserted, -1 if the doctor does not exist, 0 if any occurrence conflicts
+     */
+    private int insertSeriesIfAvailable(Long doctorId, Long patientId, List<LocalDateTime> times,
+            List<LocalDateTime> conflicts) {
+        Optional<Doctor> doctor = doctorRepository.findWithAvailabilityById(doctorId);
+        if (doctor.isEmpty()) {
+            return -1;
+        }
+        long offered = SlotMask.parse(doctor.get().getAvailability());
+        Map<LocalDate, SlotCalendarDay> days = slotCalendar.lockDays(doctorId,
+                times.stream().map(LocalDateTime::toLocalDate).toList());
+
+        for (LocalDateTime time : times) {
+            SlotCalendarDay day = days.get(time.toLocalDate());
+            long booked = day == null ? SlotMask.NONE : day.getBookedMask();
+            if (!SlotMask.contains(offered, time.toLocalTime()) || SlotMask.contains(booked, time.toLocalTime())) {
+                conflicts.add(time);
+            }
+        }
+        if (!conflicts.isEmpty()) {
             return 0;
         }
+
+        Patient patient = new Patient();
+        patient.setId(patientId);
+        List<Appointment> appointments = new ArrayList<>(times.size());
+        for (LocalDateTime time : times) {
+            appointments.add(new Appointment(null, doctor.get(), patient, time, 0));
+        }
+        // Sequence ids defer every INSERT to the flush, where they go out as one batch
+        appointmentRepository.saveAll(appointments);
+        slotCalendar.bookAll(doctorId, days, times);
+        appointmentRepository.flush();
+        return 1;
+    }
+
+    private static boolean isSlotConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(Appointment.SLOT_CONSTRAINT);
+    }
+
+    /**
+     * Holds a slot for a patient for a short time before booking it.
+     * 
+     * The slot must be offered by the doctor and not yet booked. While the
+     * hold lasts the slot is hidden from availability and other patients
+     * cannot book it; booking it as this patient consumes the hold. Holding
+     * another slot releases the patient's previous hold.
+     * 
+     * @param doctorId Doctor to book
+     * @param time Start of the slot
+     * @param patientId ID of the authenticated patient
+     * @return ResponseEntity with status code, message and hold duration
+     */
+    public ResponseEntity<Map<String, Object>> holdSlot(Long doctorId, LocalDateTime time, Long patientId) {
+        Map<String, Object> response = new HashMap<>();
+        Optional<Doctor> doctor = doctorRepository.findWithAvailabilityById(doctorId);
+
+        if (doctor.isEmpty()) {
+            response.put("message", "Invalid doctor id");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        if (!SlotMask.contains(SlotMask.parse(doctor.get().getAvailability()), time.toLocalTime())) {
+            response.put("message", "Doctor not available at the given time");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        if (SlotMask.contains(slotCalendar.bookedMask(doctorId, time.toLocalDate()), time.toLocalTime())) {
+            response.put("message", "Appointment already booked for given time");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        if (!slotHolds.hold(doctorId, time, patientId)) {
+            response.put("message", "Slot is held by another patient");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+
+        response.put("message", "Slot held");
+        response.put("expiresInSeconds", slotHolds.getTtlSeconds());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * Releases the patient's hold on a slot when they decide not to book.
+     * 
+     * @param doctorId Doctor of the held slot
+     * @param time Start of the held slot
+     * @param patientId ID of the authenticated patient
+     * @return ResponseEntity with status code and message
+     */
+    public ResponseEntity<Map<String, String>> releaseHold(Long doctorId, LocalDateTime time, Long patientId) {
+        Map<String, String> response = new HashMap<>();
+        slotHolds.release(doctorId, time, patientId);
+        response.put("message", "Hold released");
+        return ResponseEntity.ok(response);
     }
 
     /**
      * Updates existing appointment details.
      * 
-     * Validates appointment exists and patient ID matches before updating.
-     * Checks doctor availability and time conflicts. Returns appropriate
+     * Validates appointment exists and that both the stored and the updated
+     * appointment belong to the authenticated patient before updating.
+     * Checks doctor availability and time conflicts. The appointment and
+     * the slot calendar are updated in one transaction. Returns appropriate
      * HTTP response with status message.
      * 
      * @param appointment Updated appointment data including ID
+     * @param patientId ID of the authenticated patient
      * @return ResponseEntity with status code and message
      */
-    public ResponseEntity<Map<String, String>> updateAppointment(Appointment appointment) {
+    public ResponseEntity<Map<String, String>> updateAppointment(Appointment appointment, Long patientId) {
         Map<String, String> response = new HashMap<>();
         Optional<Appointment> result = appointmentRepository.findById(appointment.getId());
 
@@ -82,17 +389,49 @@ public class AppointmentService {
             response.put("message", "No appointment available with id: " + appointment.getId());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
-        if (result.get().getPatient().getId() != appointment.getPatient().getId()) {
+        if (!patientId.equals(result.get().getPatient().getId()) || appointment.getPatient() == null
+                || !patientId.equals(appointment.getPatient().getId())) {
             response.put("message", "Patient Id mismatch");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         }
 
+        Long previousDoctorId = result.get().getDoctor().getId();
+        LocalDateTime previousTime = result.get().getApptTime();
+        boolean moved = !previousDoctorId.equals(appointment.getDoctor().getId())
+                || !previousTime.equals(appointment.getApptTime());
+
+        if (moved && slotHolds.isHeldByOther(appointment.getDoctor().getId(), appointment.getApptTime(), patientId)) {
+            response.put("message", "Slot is held by another patient");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+
         int out = service.validateAppointment(appointment);
         if (out == 1) {
             try {
-                appointmentRepository.save(appointment);
+                transactionTemplate.executeWithoutResult(status -> {
+                    appointmentRepository.saveAndFlush(appointment);
+                    if (moved) {
+                        slotCalendar.release(previousDoctorId, previousTime);
+                        slotCalendar.book(appointment.getDoctor().getId(), appointment.getApptTime());
+                    }
+                });
+                reservationLedger.release(previousDoctorId, previousTime);
+                reservationLedger.markTaken(appointment.getDoctor().getId(), appointment.getApptTime());
+                slotHolds.release(appointment.getDoctor().getId(), appointment.getApptTime(), patientId);
                 response.put("message", "Appointment Updated Successfully");
                 return ResponseEntity.status(HttpStatus.OK).body(response);
+            } catch (DataIntegrityViolationException e) {
+                if (isSlotConflict(e)) {
+                    response.put("message", "Appointment already booked for given time");
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+                }
+                if (SlotCalendar.isDayCreationRace(e)) {
+                    response.put("message", "Booking is busy, please try again");
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+                }
+                System.out.println("Error: " + e.getMostSpecificCause());
+                response.put("message", "Invalid appointment data");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             } catch (Exception e) {
                 System.out.println("Error: " + e);
                 response.put("message", "Internal Server Error");
@@ -110,27 +449,30 @@ public class AppointmentService {
     /**
      * Cancels appointment by ID with patient verification.
      * 
-     * Extracts patient from token and verifies ownership before deletion.
-     * Ensures only the patient who booked can cancel their appointment.
+     * Verifies the authenticated patient owns the appointment before deletion.
+     * Ensures only the patient who booked can cancel their appointment. The
+     * slot is freed in the slot calendar in the same transaction.
      * Returns appropriate status based on operation result.
      * 
      * @param id Appointment ID to cancel
-     * @param token JWT token for patient authentication
+     * @param patientId ID of the authenticated patient
      * @return ResponseEntity with deletion status and message
      */
-    public ResponseEntity<Map<String, String>> cancelAppointment(long id, String token) {
+    public ResponseEntity<Map<String, String>> cancelAppointment(long id, Long patientId) {
         Map<String, String> response = new HashMap<>();
         Optional<Appointment> appointment = appointmentRepository.findById(id);
-        String extractedToken = tokenService.extractEmail(token);
-        Patient patient = patientRepository.findByEmail(extractedToken);
 
-        if (patient.getId() != appointment.get().getPatient().getId()) {
+        if (appointment.isPresent() && !patientId.equals(appointment.get().getPatient().getId())) {
             response.put("message", "Patient Id mismatch");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         }
         if (appointment.isPresent()) {
             try {
-                appointmentRepository.delete(appointment.get());
+                transactionTemplate.executeWithoutResult(status -> {
+                    appointmentRepository.delete(appointment.get());
+                    slotCalendar.release(appointment.get().getDoctor().getId(), appointment.get().getApptTime());
+                });
+                reservationLedger.release(appointment.get().getDoctor().getId(), appointment.get().getApptTime());
                 response.put("message", "Appointment Deleted Successfully");
                 return ResponseEntity.status(HttpStatus.OK).body(response);
             } catch (Exception e) {
@@ -146,47 +488,32 @@ public class AppointmentService {
     /**
      * Retrieves appointments for a doctor filtered by date and patient name.
      * 
-     * Extracts doctor ID from token for security. Filters appointments by
-     * date range (full day). Optional patient name filter with partial match.
-     * Returns DTOs with patient details for display.
+     * Scoped to the authenticated doctor. Filters appointments by date
+     * range (full day). Optional patient name filter with partial match.
+     * Returns DTOs with patient details for display, selected directly by
+     * the query.
      * 
      * @param pname Patient name filter or "null" for all patients
      * @param date Date to filter appointments (uses full day range)
-     * @param token JWT token containing doctor email
+     * @param doctorId ID of the authenticated doctor
      * @return Map containing list of appointment DTOs
      */
     @Transactional
-    public Map<String, Object> getAppointment(String pname, LocalDate date, String token) {
+    public Map<String, Object> getAppointment(String pname, LocalDate date, Long doctorId) {
         Map<String, Object> map = new HashMap<>();
-        String extractedEmail = tokenService.extractEmail(token);
-        Long doctorId = doctorRepository.findByEmail(extractedEmail).getId();
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-        List<Appointment> appointments;
+        List<AppointmentDTO> appointmentDTOs;
 
         if (pname.equals("null")) {
-            appointments = appointmentRepository
+            appointmentDTOs = appointmentRepository
                     .findByDoctorIdAndAppointmentTimeBetween(doctorId, startOfDay, endOfDay);
         } else {
-            appointments = appointmentRepository
+            appointmentDTOs = appointmentRepository
                     .findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
                             doctorId, pname, startOfDay, endOfDay);
         }
 
-        List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                .map(app -> new AppointmentDTO(
-                        app.getId(),
-                        app.getDoctor().getId(),
-                        app.getDoctor().getName(),
-                        app.getPatient().getId(),
-                        app.getPatient().getName(),
-                        app.getPatient().getEmail(),
-                        app.getPatient().getPhone(),
-                        app.getPatient().getAddress(),
-                        app.getApptTime(),
-                        app.getStatus()))
-                .collect(Collectors.toList());
-
         map.put("appointments", appointmentDTOs);
         return map;
     }
@@ -206,34 +533,17 @@ public class AppointmentService {
     }
 
     @Transactional
-    public Map<String, Object> getUpcomingAppointments(String pname, String token) {
+    public Map<String, Object> getUpcomingAppointments(String pname, Long doctorId) {
         Map<String, Object> map = new HashMap<>();
 
-        String email = tokenService.extractEmail(token);
-        Long doctorId = doctorRepository.findByEmail(email).getId();
-
         java.time.LocalDateTime now = java.time.LocalDateTime.now();
 
-        List<Appointment> appointments;
+        List<AppointmentDTO> rows;
         if (pname == null || pname.isBlank() || "null".equalsIgnoreCase(pname)) {
-            appointments = appointmentRepository.findUpcomingByDoctor(doctorId, now);
+            rows = appointmentRepository.findUpcomingByDoctor(doctorId, now);
         } else {
-            appointments = appointmentRepository.findUpcomingByDoctorAndPatient(doctorId, now, pname);
-        }
-
-        List<AppointmentDTO> rows = appointments.stream()
-            .map(app -> new AppointmentDTO(
-                app.getId(),
-                app.getDoctor().getId(),
-                app.getDoctor().getName(),
-                app.getPatient().getId(),
-                app.getPatient().getName(),
-                app.getPatient().getEmail(),
-                app.getPatient().getPhone(),
-                app.getPatient().getAddress(),
-                app.getApptTime(),      // or getAppointmentTime()
-                app.getStatus()))
-            .toList();
+            rows = appointmentRepository.findUpcomingByDoctorAndPatient(doctorId, now, pname);
+        }
 
         map.put("appointments", rows);
         return map;
@@ -0,0 +1,99 @@
+package com.project.back_end.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded cache of verified JWT claims.
+ *
+ * Entries are keyed by a SHA-256 digest of the compact token so raw tokens
+ * are never held in memory, and each entry expires at the token's own
+ * {@code exp}. When the cache is full, expired entries are purged first and
+ * arbitrary entries are dropped after that. Hits and misses are published
+ * as {@code clinic.token.claims.cache} counters.
+ */
+class ClaimsCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+
+    ClaimsCache(int maxEntries, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("clinic.token.claims.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("clinic.token.claims.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("clinic.token.claims.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached claims for a token digest, or null on a miss.
+     * Entries past their expiry are removed and counted as misses.
+     */
+    Claims get(String digest) {
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(digest, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.claims;
+    }
+
+    void put(String digest, Claims claims) {
+        if (claims.getExpiration() == null) return;
+
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(digest, new Entry(claims, claims.getExpiration().getTime()));
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    static String digest(String token) {
+        MessageDigest sha = SHA_256.get();
+        sha.reset();
+        return Base64.getEncoder().encodeToString(sha.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+}
@@ -0,0 +1,365 @@
+package com.project.back_end.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.DTO.DoctorFacets;
+import com.project.back_end.DTO.DoctorQuery;
+import com.project.back_end.DTO.DoctorSearchResult;
+import com.project.back_end.DTO.DoctorView;
+import com.project.back_end.DTO.Suggestion;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.SlotMask;
+import com.project.back_end.repo.DoctorRepository;
+
+/**
+ * In-memory, versioned snapshot of all doctors and their availability.
+ *
+ * Readers get the current immutable {@link Snapshot} with a single volatile
+ * read and never touch the database. Doctor mutations replace the snapshot
+ * copy-on-write; writers are serialized, readers are never blocked. The
+ * snapshot is loaded from the database on first use. It reflects mutations
+ * made through this instance only.
+ *
+ * Every snapshot carries a version that increases with each mutation. The
+ * version stamp adds a per-instance epoch so stamps from different
+ * instances or restarts never collide.
+ */
+@Component
+public class DoctorCatalog {
+
+    private final DoctorRepository doctorRepository;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private volatile Snapshot snapshot;
+
+    public DoctorCatalog(DoctorRepository doctorRepository) {
+        this.doctorRepository = doctorRepository;
+    }
+
+    /**
+     * Returns the current snapshot, loading it on first use.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) return current;
+
+        synchronized (this) {
+            if (snapshot == null) {
+                List<DoctorView> doctors = new ArrayList<>();
+                for (Doctor doctor : doctorRepository.findAllWithAvailability()) {
+                    doctors.add(new DoctorView(doctor));
+                }
+                snapshot = new Snapshot(1, doctors, SuggestionIndex.build(doctors));
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Returns the current version stamp, such as "m1x2k3-42".
+     */
+    public String versionStamp() {
+        return epoch + "-" + snapshot().getVersion();
+    }
+
+    /**
+     * Adds or replaces one doctor in a new snapshot version.
+     *
+     * @param doctor Doctor as just persisted
+     */
+    public synchronized void upsert(Doctor doctor) {
+        Snapshot current = snapshot();
+        List<DoctorView> doctors = new ArrayList<>(current.doctors.size() + 1);
+        for (DoctorView view : current.doctors) {
+            if (!view.getId().equals(doctor.getId())) doctors.add(view);
+        }
+        DoctorView view = new DoctorView(doctor);
+        doctors.add(view);
+        snapshot = new Snapshot(current.version + 1, doctors, current.suggestions.update(doctor.getId(), view));
+    }
+
+    /**
+     * Removes one doctor in a new snapshot version.
+     *
+     * @param id ID of the deleted doctor
+     */
+    public synchronized void remove(Long id) {
+        Snapshot current = snapshot();
+        List<DoctorView> doctors = new ArrayList<>(current.doctors);
+        doctors.removeIf(view -> view.getId().equals(id));
+        snapshot = new Snapshot(current.version + 1, doctors, current.suggestions.update(id, null));
+    }
+
+    /**
+     * Immutable catalog state: doctors sorted by ID, an ID lookup, a
+     * trigram index over names, doctors grouped by specialty, the
+     * doctors covering each half of the day and the autocomplete index.
+     * Built once per version; the autocomplete index is carried over from
+     * the previous version with only the changed doctor merged in.
+     */
+    public static final class Snapshot {
+
+        private static final Comparator<DoctorView> BY_ID = Comparator.comparing(DoctorView::getId);
+        private static final Comparator<DoctorView> BY_NAME = Comparator
+                .comparing((DoctorView view) -> String.valueOf(view.getName()), String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(BY_ID);
+
+        private final long version;
+        private final List<DoctorView> doctors;
+        private final Map<Long, DoctorView> byId;
+        private final DoctorNameIndex nameIndex;
+        private final List<DoctorView> morning;
+        private final List<DoctorView> afternoon;
+        private final Map<Integer, List<DoctorView>> bySpecialty;
+        private final Map<String, Integer> specialtyIds;
+        private final SuggestionIndex suggestions;
+        private final String[] specialtyKeys;
+
+        private Snapshot(long version, List<DoctorView> doctors, SuggestionIndex suggestions) {
+            List<DoctorView> sorted = new ArrayList<>(doctors);
+            sorted.sort(BY_ID);
+
+            Map<Long, DoctorView> index = new HashMap<>(sorted.size() * 2);
+            Map<Integer, List<DoctorView>> specialties = new HashMap<>();
+            Map<String, Integer> ids = new HashMap<>();
+            for (DoctorView view : sorted) {
+                index.put(view.getId(), view);
+                if (view.getSpecialtyId() != null) {
+                    specialties.computeIfAbsent(view.getSpecialtyId(), k -> new ArrayList<>()).add(view);
+                    ids.putIfAbsent(specialtyKey(view.getSpecialty()), view.getSpecialtyId());
+                }
+            }
+            specialties.replaceAll((id, list) -> Collections.unmodifiableList(list));
+            this.version = version;
+            this.doctors = Collections.unmodifiableList(sorted);
+            this.byId = Collections.unmodifiableMap(index);
+            this.nameIndex = new DoctorNameIndex(this.doctors);
+            this.morning = covering(sorted, SlotMask.MORNING);
+            this.afternoon = covering(sorted, SlotMask.AFTERNOON);
+            this.bySpecialty = specialties;
+            this.specialtyIds = ids;
+            this.suggestions = suggestions;
+            this.specialtyKeys = ids.keySet().stream().sorted().toArray(String[]::new);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<DoctorView> getDoctors() {
+            return doctors;
+        }
+
+        public DoctorView get(Long id) {
+            return byId.get(id);
+        }
+
+        /**
+         * Doctors whose name contains the fragment, best matches first.
+         */
+        public List<DoctorView> searchByName(String name) {
+            return nameIndex.search(name);
+        }
+
+        /**
+         * Doctors with at least one slot in the period, sorted by ID.
+         *
+         * @param amOrPm "AM", "PM", or blank for all doctors
+         */
+        public List<DoctorView> coveringPeriod(String amOrPm) {
+            long window = SlotMask.forPeriod(amOrPm);
+            if (window == SlotMask.MORNING) return morning;
+            if (window == SlotMask.AFTERNOON) return afternoon;
+            return doctors;
+        }
+
+        /**
+         * Autocomplete for the search box: specialties starting with the
+         * prefix first, then doctors whose name or a word in it does.
+         *
+         * @param prefix Text typed so far
+         * @param limit Maximum number of suggestions
+         */
+        public List<Suggestion> suggest(String prefix, int limit) {
+            String p = SuggestionIndex.normalize(prefix);
+            List<Suggestion> out = new ArrayList<>(limit);
+            if (p.isEmpty()) return out;
+
+            int at = Arrays.binarySearch(specialtyKeys, p);
+            for (int i = at < 0 ? -at - 1 : at; i < specialtyKeys.length && out.size() < limit; i++) {
+                if (!specialtyKeys[i].startsWith(p)) break;
+                out.add(new Suggestion("specialty", null, specialtyName(specialtyIds.get(specialtyKeys[i]))));
+            }
+            out.addAll(suggestions.suggest(p, limit - out.size()));
+            return out;
+        }
+
+        /**
+         * Runs a directory search.
+         *
+         * The plan depends on which criteria are set: a name query drives
+         * from the trigram index and keeps its ranking, otherwise the
+         * smaller of the specialty group and the period coverage list is
+         * scanned. Remaining criteria are checked per candidate, then the
+         * matches are sorted and the requested page is cut, starting either
+         * at the offset or right after the keyset cursor.
+         *
+         * @param query Criteria, sort and paging
+         * @return Requested page and total number of matches
+         */
+        public DoctorSearchResult search(DoctorQuery query) {
+            List<DoctorView> candidates = doctors;
+            boolean checkSpecialty = query.hasSpecialty();
+            boolean checkPeriod = query.hasPeriod();
+
+            if (query.hasName()) {
+                candidates = nameIndex.search(query.getName());
+            } else {
+                List<DoctorView> specialtyGroup = checkSpecialty
+                        ? bySpecialty.getOrDefault(specialtyId(query.getSpecialty()), List.of()) : null;
+                List<DoctorView> periodGroup = checkPeriod ? coveringPeriod(query.getPeriod()) : null;
+
+                if (specialtyGroup != null && (periodGroup == null || specialtyGroup.size() <= periodGroup.size())) {
+                    candidates = specialtyGroup;
+                    checkSpecialty = false;
+                } else if (periodGroup != null) {
+                    candidates = periodGroup;
+                    checkPeriod = false;
+                }
+            }
+
+            List<DoctorView> matches = candidates;
+            if (checkSpecialty || checkPeriod) {
+                Integer specialty = specialtyId(query.getSpecialty());
+                long window = SlotMask.forPeriod(query.getPeriod());
+                matches = new ArrayList<>();
+                for (DoctorView view : candidates) {
+                    if (checkSpecialty && (specialty == null || !specialty.equals(view.getSpecialtyId()))) continue;
+                    if (checkPeriod && (view.getAvailabilityMask() & window) == 0) continue;
+                    matches.add(view);
+                }
+            }
+
+            // Every non-name plan already yields ID order
+            if (query.getSort() == DoctorQuery.Sort.NAME) {
+                matches = new ArrayList<>(matches);
+                matches.sort(BY_NAME);
+            } else if (query.getSort() == DoctorQuery.Sort.ID && query.hasName()) {
+                matches = new ArrayList<>(matches);
+                matches.sort(BY_ID);
+            }
+
+            int total = matches.size();
+            int from = query.hasCursor() ? after(matches, query) : Math.min(query.getOffset(), total);
+            int to = query.getLimit() == 0 ? total : (int) Math.min((long) from + query.getLimit(), total);
+            return new DoctorSearchResult(List.copyOf(matches.subList(from, to)), total, to < total);
+        }
+
+        // Index of the first match sorting after the cursor key
+        private static int after(List<DoctorView> matches, DoctorQuery query) {
+            boolean byName = query.getSort() == DoctorQuery.Sort.NAME;
+            if (!byName && query.getSort() != DoctorQuery.Sort.ID && query.hasName()) {
+                throw new IllegalArgumentException("Keyset paging needs sorting by id or name");
+            }
+
+            int low = 0;
+            int high = matches.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                DoctorView view = matches.get(mid);
+                int cmp = byName
+                        ? String.CASE_INSENSITIVE_ORDER.compare(String.valueOf(view.getName()), query.getAfterName())
+                        : 0;
+                if (cmp == 0) cmp = Long.compare(view.getId(), query.getAfterId());
+                if (cmp <= 0) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        /**
+         * Counts doctors per specialty and per AM/PM period.
+         *
+         * Without a name or other criteria the counts are the sizes of the
+         * snapshot's specialty groups and coverage lists. Otherwise one pass
+         * over the name matches (or all doctors) counts every facet at once.
+         *
+         * @param query Selected name, specialty and period; sort and paging are ignored
+         */
+        public DoctorFacets facets(DoctorQuery query) {
+            Map<Integer, Integer> specialtyCounts = new HashMap<>();
+            int am;
+            int pm;
+            int total;
+
+            if (!query.hasName() && !query.hasSpecialty() && !query.hasPeriod()) {
+                bySpecialty.forEach((id, group) -> specialtyCounts.put(id, group.size()));
+                am = morning.size();
+                pm = afternoon.size();
+                total = doctors.size();
+            } else {
+                List<DoctorView> candidates = query.hasName() ? nameIndex.search(query.getName()) : doctors;
+                long window = SlotMask.forPeriod(query.getPeriod());
+                Integer specialty = query.hasSpecialty() ? specialtyId(query.getSpecialty()) : null;
+                am = 0;
+                pm = 0;
+                total = 0;
+
+                for (DoctorView view : candidates) {
+                    Integer id = view.getSpecialtyId();
+                    long mask = view.getAvailabilityMask();
+                    boolean inSpecialty = !query.hasSpecialty() || (specialty != null && specialty.equals(id));
+                    boolean inPeriod = !query.hasPeriod() || (mask & window) != 0;
+
+                    if (inPeriod && id != null) specialtyCounts.merge(id, 1, Integer::sum);
+                    if (inSpecialty) {
+                        if ((mask & SlotMask.MORNING) != 0) am++;
+                        if ((mask & SlotMask.AFTERNOON) != 0) pm++;
+                    }
+                    if (inSpecialty && inPeriod) total++;
+                }
+            }
+
+            Map<String, Integer> specialties = new LinkedHashMap<>();
+            specialtyCounts.keySet().stream()
+                    .sorted(Comparator.comparing(this::specialtyName, String.CASE_INSENSITIVE_ORDER))
+                    .forEach(id -> specialties.put(specialtyName(id), specialtyCounts.get(id)));
+
+            Map<String, Integer> periods = new LinkedHashMap<>();
+            periods.put("AM", am);
+            periods.put("PM", pm);
+            return new DoctorFacets(specialties, periods, total);
+        }
+
+        // Specialty filters compare integer keys; names are resolved once per query
+        private Integer specialtyId(String specialty) {
+            return specialtyIds.get(specialtyKey(specialty.trim()));
+        }
+
+        private String specialtyName(Integer id) {
+            return bySpecialty.get(id).get(0).getSpecialty();
+        }
+
+        private static String specialtyKey(String specialty) {
+            return specialty.toLowerCase(Locale.ROOT);
+        }
+
+        private static List<DoctorView> covering(List<DoctorView> doctors, long window) {
+            List<DoctorView> result = new ArrayList<>();
+            for (DoctorView view : doctors) {
+                if ((view.getAvailabilityMask() & window) != 0) result.add(view);
+            }
+            return Collections.unmodifiableList(result);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.back_end.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.project.back_end.DTO.DoctorQuery;
+import com.project.back_end.DTO.DoctorView;
+
+/**
+ * Opaque keyset cursor for paged doctor listings.
+ *
+ * Encodes the sort order and the sort key of the last doctor on a page as
+ * URL-safe Base64, so clients just echo it back to get the next page.
+ */
+final class DoctorCursor {
+
+    private static final char SEPARATOR = '\n';
+
+    private DoctorCursor() {
+    }
+
+    static String encode(DoctorQuery.Sort sort, DoctorView last) {
+        StringBuilder key = new StringBuilder().append(sort.name()).append(SEPARATOR).append(last.getId());
+        if (sort == DoctorQuery.Sort.NAME) key.append(SEPARATOR).append(String.valueOf(last.getName()));
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Positions the query right after the doctor the cursor was issued for.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    static void apply(String cursor, DoctorQuery query) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = key.split(String.valueOf(SEPARATOR), 3);
+            DoctorQuery.Sort sort = DoctorQuery.Sort.valueOf(parts[0]);
+            if (sort == DoctorQuery.Sort.NAME && parts.length != 3) throw new IllegalArgumentException();
+
+            query.setSort(sort);
+            query.setAfterId(Long.parseLong(parts[1]));
+            query.setAfterName(sort == DoctorQuery.Sort.NAME ? parts[2] : null);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.project.back_end.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.project.back_end.DTO.DoctorView;
+
+/**
+ * Immutable trigram index over doctor names.
+ *
+ * Every lower-cased name is split into overlapping three-character grams,
+ * each gram mapping to the sorted positions of the doctors containing it.
+ * A query intersects the posting lists of its own grams, starting with the
+ * shortest, and verifies the remaining candidates with a substring check.
+ * Queries shorter than one gram fall back to scanning the names.
+ *
+ * Matches are ranked exact name first, then name prefix, then word prefix,
+ * then any other substring; ties keep the input order.
+ */
+public final class DoctorNameIndex {
+
+    private static final int GRAM = 3;
+
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+    private static final int NO_MATCH = -1;
+
+    private final DoctorView[] doctors;
+    private final String[] names;
+    private final Map<Long, int[]> postings;
+
+    /**
+     * Builds the index.
+     *
+     * @param doctors Doctors to index; result ties are returned in this order
+     */
+    public DoctorNameIndex(List<DoctorView> doctors) {
+        this.doctors = doctors.toArray(new DoctorView[0]);
+        this.names = new String[this.doctors.length];
+
+        Map<Long, Postings> building = new HashMap<>();
+        for (int position = 0; position < this.doctors.length; position++) {
+            String name = normalize(this.doctors[position].getName());
+            names[position] = name;
+            for (int i = 0; i + GRAM <= name.length(); i++) {
+                building.computeIfAbsent(gram(name, i), g -> new Postings()).add(position);
+            }
+        }
+
+        Map<Long, int[]> index = new HashMap<>(building.size() * 2);
+        building.forEach((gram, list) -> index.put(gram, list.toArray()));
+        this.postings = index;
+    }
+
+    /**
+     * Finds doctors whose name contains the query, case-insensitively.
+     *
+     * @param query Name fragment as typed; blank matches every doctor
+     * @return Matching doctors, best matches first
+     */
+    public List<DoctorView> search(String query) {
+        String q = normalize(query);
+        if (q.isEmpty()) return List.of(doctors);
+
+        long[] ranked = q.length() < GRAM ? scan(q) : lookup(q);
+        Arrays.sort(ranked);
+
+        List<DoctorView> result = new ArrayList<>(ranked.length);
+        for (long key : ranked) {
+            result.add(doctors[(int) key]);
+        }
+        return result;
+    }
+
+    private long[] lookup(String q) {
+        int[][] lists = new int[q.length() - GRAM + 1][];
+        for (int i = 0; i < lists.length; i++) {
+            int[] list = postings.get(gram(q, i));
+            if (list == null) return new long[0];
+            lists[i] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+
+        // Narrowed in place, so work on a copy of the shared posting list
+        int[] candidates = lists[0].clone();
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            count = intersect(candidates, count, lists[i]);
+        }
+
+        long[] ranked = new long[count];
+        int matches = 0;
+        for (int i = 0; i < count; i++) {
+            int rank = rank(names[candidates[i]], q);
+            if (rank != NO_MATCH) ranked[matches++] = key(rank, candidates[i]);
+        }
+        return Arrays.copyOf(ranked, matches);
+    }
+
+    private long[] scan(String q) {
+        long[] ranked = new long[names.length];
+        int matches = 0;
+        for (int position = 0; position < names.length; position++) {
+            int rank = rank(names[position], q);
+            if (rank != NO_MATCH) ranked[matches++] = key(rank, position);
+        }
+        return Arrays.copyOf(ranked, matches);
+    }
+
+    /**
+     * Intersects the first {@code count} entries of {@code into} with
+     * {@code other}, compacting the survivors in place.
+     */
+    private static int intersect(int[] into, int count, int[] other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < other.length; i++) {
+            int position = into[i];
+            while (j < other.length && other[j] < position) j++;
+            if (j < other.length && other[j] == position) into[kept++] = position;
+        }
+        return kept;
+    }
+
+    private static int rank(String name, String q) {
+        int at = name.indexOf(q);
+        if (at < 0) return NO_MATCH;
+        if (at == 0) return name.length() == q.length() ? EXACT : PREFIX;
+
+        while (at > 0) {
+            if (!Character.isLetterOrDigit(name.charAt(at - 1))) return WORD_PREFIX;
+            at = name.indexOf(q, at + 1);
+        }
+        return SUBSTRING;
+    }
+
+    // Rank in the high bits, position in the low bits: sorting orders by both
+    private static long key(int rank, int position) {
+        return ((long) rank << 32) | position;
+    }
+
+    private static long gram(String s, int start) {
+        return ((long) s.charAt(start) << 32) | ((long) s.charAt(start + 1) << 16) | s.charAt(start + 2);
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Postings {
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(int position) {
+            // A gram repeated within one name is recorded once
+            if (size > 0 && positions[size - 1] == position) return;
+            if (size == positions.length) positions = Arrays.copyOf(positions, size * 2);
+            positions[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
@@ -1,75 +1,162 @@
 package com.project.back_end.services;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import com.project.back_end.DTO.Login;
+import com.project.back_end.DTO.DoctorFacets;
+import com.project.back_end.DTO.DoctorQuery;
+import com.project.back_end.DTO.DoctorSearchResult;
 import com.project.back_end.DTO.DoctorUpdateDTO;
-import com.project.back_end.models.Appointment;
+import com.project.back_end.DTO.DoctorView;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.models.SlotMask;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 
-import jakarta.transaction.Transactional;
-
 @Service
 public class DoctorService {
 
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
+    private final PasswordHasher passwordHasher;
+    private final DoctorCatalog doctorCatalog;
+    private final SpecialtyRegistry specialtyRegistry;
+    private final SlotCalendar slotCalendar;
+    private final SlotHolds slotHolds;
 
     public DoctorService(DoctorRepository doctorRepository, AppointmentRepository appointmentRepository,
-            TokenService tokenService) {
+            TokenService tokenService, PasswordHasher passwordHasher, DoctorCatalog doctorCatalog,
+            SpecialtyRegistry specialtyRegistry, SlotCalendar slotCalendar, SlotHolds slotHolds) {
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
+        this.passwordHasher = passwordHasher;
+        this.doctorCatalog = doctorCatalog;
+        this.specialtyRegistry = specialtyRegistry;
+        this.slotCalendar = slotCalendar;
+        this.slotHolds = slotHolds;
     }
 
-    @Transactional
+    /**
+     * Returns the doctor's open slots on a date.
+     *
+     * Offered slots come from the catalog snapshot and booked slots from
+     * the slot calendar, so this costs one primary-key lookup. Slots held
+     * by a patient about to book are left out too.
+     */
     public List<String> getDoctorAvailability(Long doctorId, LocalDate date) {
-        Optional<Doctor> doctor = doctorRepository.findById(doctorId);
+        DoctorView doctor = doctorCatalog.snapshot().get(doctorId);
 
-        if (doctor.isEmpty()) return List.of("Doctor not found with ID: " + doctorId);
+        if (doctor == null) return List.of("Doctor not found with ID: " + doctorId);
 
-        List<String> availableSlots = doctor.get().getAvailability().stream()
-                .map(Object::toString)
-                .collect(Collectors.toList());
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-        List<Appointment> appointments = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId,
-                startOfDay, endOfDay);
-                
-        Set<String> bookedSlots = appointments.stream()
-                .map(appt -> {
-                    LocalDateTime start = appt.getApptTime();
-                    LocalDateTime end = start.plusHours(1);
-                    return formatSlot(start, end);
-                })
-                .collect(Collectors.toSet());
+        long taken = slotCalendar.bookedMask(doctorId, date) | slotHolds.heldMask(doctorId, date);
+        return SlotMask.format(doctor.getAvailabilityMask() & ~taken);
+    }
 
-        return availableSlots.stream()
-                .filter(slot -> !bookedSlots.contains(slot))
-                .collect(Collectors.toList());
+    /**
+     * Returns the doctor's free slots on a date as a {@link SlotMask}:
+     * declared availability minus slots already booked.
+     *
+     * @param doctor Doctor with availability loaded
+     * @param date Day to check
+     * @return Mask of slots still open for booking
+     */
+    public long getAvailableSlotMask(Doctor doctor, LocalDate date) {
+        return SlotMask.parse(doctor.getAvailability()) & ~slotCalendar.bookedMask(doctor.getId(), date);
     }
 
-    private String formatSlot(LocalDateTime start, LocalDateTime end) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-        return start.format(formatter) + "-" + end.format(formatter);
+    /**
+     * Returns the doctor's open slots for every day from start to end.
+     *
+     * Reads the calendar rows of the range with a single query and
+     * subtracts each day's booked and held slots from the offered slots in
+     * one pass.
+     *
+     * @param doctorId Doctor to check
+     * @param start First day, inclusive
+     * @param end Last day, inclusive; must not be before start
+     * @return Open slots per day in date order, or null if the doctor does not exist
+     */
+    public Map<LocalDate, List<String>> getDoctorAvailability(Long doctorId, LocalDate start, LocalDate end) {
+        DoctorView doctor = doctorCatalog.snapshot().get(doctorId);
+        if (doctor == null) return null;
+
+        Map<LocalDate, Long> booked = slotCalendar.bookedMasks(doctorId, start, end);
+        Map<LocalDate, List<String>> open = new LinkedHashMap<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            long taken = booked.getOrDefault(day, SlotMask.NONE) | slotHolds.heldMask(doctorId, day);
+            open.put(day, SlotMask.format(doctor.getAvailabilityMask() & ~taken));
+        }
+        return open;
     }
 
+    /**
+     * Returns open slots on a date for each of the given doctors.
+     *
+     * Availability comes from the catalog snapshot and booked slots for
+     * all doctors from one slot calendar query. Held slots and unknown ids
+     * are left out.
+     *
+     * @param doctorIds Doctors to check
+     * @param date Day to check
+     * @return Open slots keyed by doctor id, in request order
+     */
+    public Map<Long, List<String>> getOpenSlots(Collection<Long> doctorIds, LocalDate date) {
+        DoctorCatalog.Snapshot snapshot = doctorCatalog.snapshot();
+        List<DoctorView> doctors = new ArrayList<>(doctorIds.size());
+        for (Long id : doctorIds) {
+            DoctorView view = snapshot.get(id);
+            if (view != null) doctors.add(view);
+        }
+        return openSlots(doctors, date);
+    }
+
+    /**
+     * Returns open slots on a date for the page of doctors matching a
+     * filter, as {@link #searchDoctors} would list them.
+     *
+     * @param query Filter criteria, sort and page size
+     * @param date Day to check
+     * @return Open slots keyed by doctor id, in listing order
+     */
+    public Map<Long, List<String>> getOpenSlots(DoctorQuery query, LocalDate date) {
+        return openSlots(doctorCatalog.snapshot().search(query).getDoctors(), date);
+    }
+
+    private Map<Long, List<String>> openSlots(List<DoctorView> doctors, LocalDate date) {
+        Map<Long, List<String>> open = new LinkedHashMap<>();
+        if (doctors.isEmpty()) return open;
+
+        List<Long> ids = doctors.stream().map(DoctorView::getId).distinct().toList();
+        Map<Long, Long> booked = slotCalendar.bookedMasks(ids, date);
+        for (DoctorView doctor : doctors) {
+            long taken = booked.getOrDefault(doctor.getId(), SlotMask.NONE)
+                    | slotHolds.heldMask(doctor.getId(), date);
+            open.put(doctor.getId(), SlotMask.format(doctor.getAvailabilityMask() & ~taken));
+        }
+        return open;
+    }
+
+    /**
+     * Hashes the password and saves a new doctor.
+     *
+     * @return 1 on success, -1 if the email is taken, -2 if the password
+     *         pool is saturated, 0 on other errors
+     */
     public int saveDoctor(Doctor doctor) {
         Doctor result = doctorRepository.findByEmail(doctor.getEmail());
 
@@ -77,8 +164,13 @@ public class DoctorService {
             return -1;
         }
         try {
+            doctor.setPassword(passwordHasher.hash(doctor.getPassword()));
+            doctor.setSpecialtyRef(specialtyRegistry.resolve(doctor.getSpecialty()));
             doctorRepository.save(doctor);
+            doctorCatalog.upsert(doctor);
             return 1;
+        } catch (RejectedExecutionException e) {
+            return -2;
         } catch (Exception e) {
             System.err.println("Error saving doctor: " + e.getMessage());
             return 0;
@@ -94,15 +186,20 @@ public class DoctorService {
 
         try {
             Doctor updateDoc = existingDoc.get();
+            boolean emailChanged = !doctor.getEmail().equals(updateDoc.getEmail());
             
             // Update DTO fields
             updateDoc.setName(doctor.getName());
-            updateDoc.setSpecialty(doctor.getSpecialty());
+            updateDoc.setSpecialtyRef(specialtyRegistry.resolve(doctor.getSpecialty()));
             updateDoc.setEmail(doctor.getEmail());
             updateDoc.setPhone(doctor.getPhone());
             updateDoc.setAvailability(doctor.getAvailability());
             
             doctorRepository.save(updateDoc);
+            doctorCatalog.upsert(updateDoc);
+
+            // Existing tokens carry the old email as subject
+            if (emailChanged) tokenService.revoke("doctor", updateDoc.getId());
             return 1;
         } catch (Exception e) {
             System.err.println("Error saving doctor: " + e.getMessage());
@@ -110,15 +207,17 @@ public class DoctorService {
         }
     }
 
-    @Transactional
-    public List<Doctor> getDoctors() {
-        List<Doctor> doctors = doctorRepository.findAll();
-
-        // Sort by ID
-        doctors.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+    /**
+     * Returns a stamp of the current doctor directory. It changes whenever
+     * a doctor is saved, updated or deleted.
+     */
+    public String getDirectoryVersion() {
+        return doctorCatalog.versionStamp();
+    }
 
-        doctors.forEach(doc -> doc.getAvailability().size());
-        return doctors;
+    public List<DoctorView> getDoctors() {
+        // Already sorted by ID in the snapshot
+        return doctorCatalog.snapshot().getDoctors();
     }
     
     public int deleteDoctor(long id) {
@@ -129,7 +228,10 @@ public class DoctorService {
         }
         try {
             appointmentRepository.deleteAllByDoctorId(doctor.get().getId());
+            slotCalendar.removeDoctor(doctor.get().getId());
             doctorRepository.delete(doctor.get());
+            doctorCatalog.remove(id);
+            tokenService.revoke("doctor", id);
             return 1;
         } catch (Exception e) {
             System.err.println("Error saving doctor: " + e.getMessage());
@@ -143,8 +245,13 @@ public class DoctorService {
         try {
             Doctor doctor = doctorRepository.findByEmail(login.getEmail());
             if (doctor != null) {
-                if (doctor.getPassword().equals(login.getPassword())) {
-                    map.put("token", tokenService.generateToken(doctor.getEmail()));
+                boolean matches = passwordHasher.matches(login.getPassword(), doctor.getPassword(),
+                        rehashed -> {
+                            doctor.setPassword(rehashed);
+                            doctorRepository.save(doctor);
+                        });
+                if (matches) {
+                    map.put("token", tokenService.generateToken(doctor.getEmail(), "doctor", doctor.getId()));
                     return ResponseEntity.status(HttpStatus.OK).body(map);
                 } else {
                     map.put("error", "Password does not match");
@@ -154,6 +261,10 @@ public class DoctorService {
             map.put("error", "invalid email id");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(map);
 
+        } catch (RejectedExecutionException e) {
+            map.put("error", "Too many login attempts, please try again");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1").body(map);
         } catch (Exception e) {
             System.out.println("Error: " + e);
             map.put("error", "Internal Server error");
@@ -161,94 +272,74 @@ public class DoctorService {
         }
     }
 
-    @Transactional
-    public Map<String, Object> findDoctorByName(String name) {
-        Map<String, Object> map = new HashMap<>();
-        List<Doctor> doctorList = doctorRepository.findByNameLike(name);
-
-        doctorList.forEach(doc -> doc.getAvailability().size());
-        map.put("doctors", doctorList);
-        return map;
-    }
-
-    @Transactional
-    public Map<String, Object> filterDoctorsByNameSpecilityandTime(
-            String name, String specialty, String amOrPm) {
+    /**
+     * Searches the doctor directory.
+     *
+     * @param query Name, specialty and time-of-day criteria with sort and paging
+     * @return Map with the "doctors" page and the "total" number of matches
+     */
+    public Map<String, Object> searchDoctors(DoctorQuery query) {
         Map<String, Object> map = new HashMap<>();
-        List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
-        List<Doctor> filteredDoctors = filterDoctorByTime(doctors,amOrPm);
+        DoctorSearchResult result = doctorCatalog.snapshot().search(query);
 
-        map.put("doctors", filteredDoctors);
+        map.put("doctors", result.getDoctors());
+        map.put("total", result.getTotal());
         return map;
     }
 
-    @Transactional
-    public Map<String, Object> filterDoctorByNameAndTime(String name, String amOrPm) {
+    /**
+     * Counts doctors per specialty and per AM/PM period for the filter
+     * dropdowns, each facet narrowed by the other selected criteria.
+     *
+     * @param query Selected name, specialty and period
+     * @return Map with "specialties", "periods" and "total"
+     */
+    public Map<String, Object> getFacets(DoctorQuery query) {
         Map<String, Object> map = new HashMap<>();
-        List<Doctor> doctors = doctorRepository.findByNameLike(name);
-        List<Doctor> filteredDoctors = filterDoctorByTime(doctors,amOrPm);
+        DoctorFacets facets = doctorCatalog.snapshot().facets(query);
 
-        map.put("doctors", filteredDoctors);
+        map.put("specialties", facets.getSpecialties());
+        map.put("periods", facets.getPeriods());
+        map.put("total", facets.getTotal());
         return map;
     }
 
-    @Transactional
-    public Map<String, Object> filterDoctorByNameAndSpecility(String name, String specilty) {
+    /**
+     * Returns autocomplete suggestions for the directory search box.
+     *
+     * @param prefix Text typed so far
+     * @param limit Maximum number of suggestions
+     * @return Map with the "suggestions" list of type, id and label
+     */
+    public Map<String, Object> suggest(String prefix, int limit) {
         Map<String, Object> map = new HashMap<>();
-        List<Doctor> doctorList = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specilty);
 
-        doctorList.forEach(doc -> doc.getAvailability().size());
-        map.put("doctors", doctorList);
+        map.put("suggestions", doctorCatalog.snapshot().suggest(prefix, limit));
         return map;
     }
 
-    @Transactional
-    public Map<String, Object> filterDoctorByTimeAndSpecility(String specilty, String amOrPm) {
+    /**
+     * Returns one keyset page of a directory search.
+     *
+     * @param query Criteria, sort (ID or name) and page size
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @return Map with "doctors", "total" and "nextCursor" (null on the last page)
+     * @throws IllegalArgumentException if the cursor is malformed or the
+     *         sort cannot be paged by key
+     */
+    public Map<String, Object> pageDoctors(DoctorQuery query, String cursor) {
         Map<String, Object> map = new HashMap<>();
-        List<Doctor> doctors = doctorRepository.findBySpecialtyIgnoreCase(specilty);
-        List<Doctor> filteredDoctors = filterDoctorByTime(doctors,amOrPm);
+        if (cursor != null) DoctorCursor.apply(cursor, query);
 
-        map.put("doctors", filteredDoctors);
-        return map;
+        DoctorSearchResult result = doctorCatalog.snapshot().search(query);
+        List<DoctorView> doctors = result.getDoctors();
+        String nextCursor = result.hasMore()
+                ? DoctorCursor.encode(query.getSort(), doctors.get(doctors.size() - 1))
+                : null;
 
-    }
-
-    @Transactional
-    public Map<String, Object> filterDoctorBySpecility(String specilty) {
-        Map<String, Object> map = new HashMap<>();
-        List<Doctor> doctorList = doctorRepository.findBySpecialtyIgnoreCase(specilty);
-
-        doctorList.forEach(doc -> doc.getAvailability().size());
-        map.put("doctors", doctorList);
+        map.put("doctors", doctors);
+        map.put("total", result.getTotal());
+        map.put("nextCursor", nextCursor);
         return map;
     }
-
-    @Transactional
-    public Map<String, Object> filterDoctorsByTime(String amOrPm) {
-        Map<String, Object> map = new HashMap<>();
-        List<Doctor> doctors = doctorRepository.findAll();
-        List<Doctor> filteredDoctors = filterDoctorByTime(doctors,amOrPm);
-
-        map.put("doctors", filteredDoctors);
-        return map;
-    }
-
-    public  List<Doctor> filterDoctorByTime(List<Doctor> doctors,String amOrPm) {
-        return doctors.stream()
-        .filter(doctor -> {
-            if (amOrPm == null || amOrPm.isBlank()) return true;
-            boolean isAM = amOrPm.equalsIgnoreCase("am");
-            return doctor.getAvailability().stream().anyMatch(slot -> {
-                try {
-                    String startHourStr = slot.split("-")[0].split(":")[0];
-                    int hour = Integer.parseInt(startHourStr);
-
-                    return isAM ? hour < 12 : hour >= 12;
-                } catch (Exception e) {
-                    return false;
-                }
-            });
-        })
-        .collect(Collectors.toList());
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+package com.project.back_end.services;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+
+/**
+ * Remembers the first response to a write sent with an
+ * {@code Idempotency-Key} header, so a client retrying after a dropped
+ * connection gets that response again instead of repeating the write.
+ *
+ * Keys are scoped to the endpoint and the caller, so two users or two
+ * endpoints never share a key. Each entry keeps a SHA-256 digest of the
+ * request body, and reusing a key with a different body is refused with
+ * 422 instead of replaying a response to another request. A retry that
+ * arrives while the first request is still running is answered with 409
+ * rather than run twice. A key sent without a resolved caller is refused
+ * with 401, since it cannot be scoped.
+ * Server errors are not stored, so a retry after a 5xx runs again.
+ * Entries live for {@code clinic.idempotency.ttl-seconds} and the store
+ * holds at most {@code clinic.idempotency.max-entries}; since every entry
+ * gets the same TTL, insertion order is expiry order, and expired entries
+ * are dropped from the head of the map without scanning the rest.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public IdempotencyStore(@Value("${clinic.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${clinic.idempotency.max-entries:10000}") int maxEntries, ObjectProvider<ObjectMapper> objectMapper) {
+        this(ttlSeconds, maxEntries, objectMapper.getIfAvailable(() -> JsonMapper.builder().findAndAddModules().build()));
+    }
+
+    /**
+     * @param objectMapper Serializes request bodies for the digest; contexts
+     *                     without Jackson support get a private one from the public constructor
+     */
+    IdempotencyStore(long ttlSeconds, int maxEntries, ObjectMapper objectMapper) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Runs a write once per idempotency key.
+     *
+     * Without a key the write simply runs. The body is digested before
+     * the write runs, since writes may modify the object they were given.
+     *
+     * @param endpoint Method and path of the write, e.g. "POST /appointments"
+     * @param principal Caller resolved from the token
+     * @param key Value of the Idempotency-Key header, may be null
+     * @param body Request body the write was bound from
+     * @param write The write and its response
+     * @return The write's response, or the stored one with {@code Idempotent-Replayed: true}
+     */
+    public ResponseEntity<Map<String, String>> execute(String endpoint, AuthenticatedPrincipal principal,
+            String key, Object body, Supplier<ResponseEntity<Map<String, String>>> write) {
+        if (key == null || key.isBlank()) {
+            return write.get();
+        }
+        if (principal == null) {
+            Map<String, String> response = new HashMap<>();
+            response.put("error", "Invalid or expired token");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return message(HttpStatus.BAD_REQUEST, HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String storeKey = endpoint + '\n' + principal.getRole() + ':' + principal.getId() + '\n' + key;
+        String bodyDigest = digest(body);
+        long now = System.nanoTime();
+        Entry claim = new Entry(now + ttlNanos, bodyDigest);
+        Entry existing;
+        ResponseEntity<Map<String, String>> stored = null;
+        synchronized (entries) {
+            evictExpired(now);
+            existing = entries.get(storeKey);
+            if (existing == null) {
+                entries.put(storeKey, claim);
+                evictOverflow();
+            } else {
+                stored = existing.response;
+            }
+        }
+
+        if (existing != null) {
+            if (!existing.bodyDigest.equals(bodyDigest)) {
+                return message(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "This " + HEADER + " was already used with a different request body");
+            }
+            if (stored == null) {
+                return message(HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+            }
+            return ResponseEntity.status(stored.getStatusCode())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(stored.getBody());
+        }
+
+        ResponseEntity<Map<String, String>> response = null;
+        try {
+            response = write.get();
+            return response;
+        } finally {
+            synchronized (entries) {
+                if (response != null && !response.getStatusCode().is5xxServerError()) {
+                    claim.response = snapshot(response);
+                } else {
+                    entries.remove(storeKey, claim);
+                }
+            }
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (oldest.hasNext() && now - oldest.next().expiresAt >= 0) {
+            oldest.remove();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (entries.size() > maxEntries && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private String digest(Object body) {
+        try {
+            MessageDigest sha = SHA_256.get();
+            sha.reset();
+            return Base64.getEncoder().encodeToString(sha.digest(objectMapper.writeValueAsBytes(body)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Request body cannot be serialized", e);
+        }
+    }
+
+    private static ResponseEntity<Map<String, String>> snapshot(ResponseEntity<Map<String, String>> response) {
+        HttpStatusCode status = response.getStatusCode();
+        Map<String, String> body = response.getBody();
+        return ResponseEntity.status(status)
+                .body(body == null ? null : Collections.unmodifiableMap(new HashMap<>(body)));
+    }
+
+    private static ResponseEntity<Map<String, String>> message(HttpStatus status, String message) {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", message);
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private static final class Entry {
+        private final long expiresAt;
+        private final String bodyDigest;
+        private ResponseEntity<Map<String, String>> response;
+
+        private Entry(long expiresAt, String bodyDigest) {
+            this.expiresAt = expiresAt;
+            this.bodyDigest = bodyDigest;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.project.back_end.services;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * In-memory token-bucket limiter for login attempts.
+ *
+ * Keeps one bucket per login identifier and one per client IP. Each bucket
+ * is a single {@link AtomicLong} holding its theoretical arrival time
+ * (GCRA), so checking and consuming a token is one CAS with no locks.
+ * Buckets that have fully refilled are swept out periodically. Rejections
+ * are counted as {@code clinic.login.throttled}, tagged by scope.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Limit identifierLimit;
+    private final Limit ipLimit;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+    private final AtomicLong nextSweep;
+    private final Counter identifierRejections;
+    private final Counter ipRejections;
+
+    @Autowired
+    public LoginThrottle(
+            @Value("${login.throttle.identifier.burst:5}") int identifierBurst,
+            @Value("${login.throttle.identifier.refill-seconds:30}") long identifierRefillSeconds,
+            @Value("${login.throttle.ip.burst:20}") int ipBurst,
+            @Value("${login.throttle.ip.refill-seconds:3}") long ipRefillSeconds,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this(identifierBurst, identifierRefillSeconds, ipBurst, ipRefillSeconds,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new), System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock Monotonic time source in nanoseconds; tests pass a fake one
+     */
+    LoginThrottle(int identifierBurst, long identifierRefillSeconds, int ipBurst, long ipRefillSeconds,
+            MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.nextSweep = new AtomicLong(nanoClock.getAsLong() + SWEEP_INTERVAL_NANOS);
+        this.identifierLimit = new Limit(identifierBurst, TimeUnit.SECONDS.toNanos(identifierRefillSeconds));
+        this.ipLimit = new Limit(ipBurst, TimeUnit.SECONDS.toNanos(ipRefillSeconds));
+        this.identifierRejections = Counter.builder("clinic.login.throttled")
+                .tag("scope", "identifier")
+                .register(meterRegistry);
+        this.ipRejections = Counter.builder("clinic.login.throttled")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consumes one attempt for the identifier and the client IP.
+     *
+     * @param realm Login type ("admin", "doctor" or "patient")
+     * @param identifier Email or username being tried
+     * @param clientIp Remote address of the caller
+     * @return true if the attempt is over the limit and must be rejected
+     */
+    public boolean rejectAttempt(String realm, String identifier, String clientIp) {
+        long now = nanoClock.getAsLong();
+        sweepIfDue(now);
+
+        if (!tryAcquire("ip:" + clientIp, ipLimit, now)) {
+            ipRejections.increment();
+            return true;
+        }
+        String normalized = identifier == null ? "" : identifier.trim().toLowerCase(Locale.ROOT);
+        if (!tryAcquire(realm + ":" + normalized, identifierLimit, now)) {
+            identifierRejections.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Number of buckets currently tracked, for tests of the sweep.
+     */
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private boolean tryAcquire(String key, Limit limit, long now) {
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + limit.intervalNanos;
+            if (next - now > limit.burstNanos) return false;
+            if (bucket.compareAndSet(arrival, next)) return true;
+        }
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) return;
+
+        // A bucket whose arrival time has passed is full again and can be forgotten
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    private static final class Limit {
+        private final long intervalNanos;
+        private final long burstNanos;
+
+        private Limit(int burst, long intervalNanos) {
+            this.intervalNanos = intervalNanos;
+            this.burstNanos = burst * intervalNanos;
+        }
+    }
+}
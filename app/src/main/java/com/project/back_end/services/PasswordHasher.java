@@ -0,0 +1,150 @@
+package com.project.back_end.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service class for hashing and verifying passwords.
+ *
+ * Uses bcrypt with a configurable cost. All hashing runs on a small
+ * dedicated pool with a bounded queue so CPU-heavy logins cannot tie up
+ * every web worker thread. When the queue is full the call is rejected
+ * immediately with {@link RejectedExecutionException} and callers answer
+ * 503. Stored plaintext passwords and hashes with a lower cost than the
+ * configured one are re-hashed after a successful verification.
+ */
+@Service
+public class PasswordHasher {
+
+    private static final String BCRYPT_PREFIX = "$2";
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final Counter rejected;
+
+    @Autowired
+    public PasswordHasher(
+            @Value("${security.password.bcrypt-cost:10}") int cost,
+            @Value("${security.password.threads:0}") int threads,
+            @Value("${security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.timeout-ms:5000}") long timeoutMillis,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this(cost, threads, queueCapacity, timeoutMillis, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /**
+     * @param meterRegistry Registry for the pool metrics; contexts without
+     *                      metrics support get a private one from the public constructor
+     */
+    PasswordHasher(int cost, int threads, int queueCapacity, long timeoutMillis, MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("clinic.password.rejected").register(meterRegistry);
+        Gauge.builder("clinic.password.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Hashes a raw password for storage.
+     *
+     * @param rawPassword Password as entered by the user
+     * @return bcrypt hash
+     * @throws RejectedExecutionException if the hashing pool is saturated
+     */
+    public String hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a raw password against the stored value.
+     *
+     * Accepts both bcrypt hashes and legacy plaintext values. On a match
+     * that needs upgrading, the new hash is computed in the same pool task
+     * and handed to {@code rehashed} so the caller can persist it.
+     *
+     * @param rawPassword Password as entered by the user
+     * @param storedPassword Value currently stored for the account
+     * @param rehashed Receives the upgraded hash; not called when no upgrade is due
+     * @return true if the password matches
+     * @throws RejectedExecutionException if the hashing pool is saturated
+     */
+    public boolean matches(String rawPassword, String storedPassword, Consumer<String> rehashed) {
+        if (rawPassword == null || storedPassword == null) return false;
+
+        String upgraded = submit(() -> {
+            if (storedPassword.startsWith(BCRYPT_PREFIX)) {
+                if (!encoder.matches(rawPassword, storedPassword)) return null;
+                return encoder.upgradeEncoding(storedPassword) ? encoder.encode(rawPassword) : storedPassword;
+            }
+            boolean equal = MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+            return equal ? encoder.encode(rawPassword) : null;
+        });
+
+        if (upgraded == null) return false;
+        if (!upgraded.equals(storedPassword)) rehashed.accept(upgraded);
+        return true;
+    }
+
+    private String submit(Callable<String> task) {
+        Future<String> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new RejectedExecutionException("Password verification timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while verifying password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
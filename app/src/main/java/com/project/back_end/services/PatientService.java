@@ -3,14 +3,13 @@ package com.project.back_end.services;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import com.project.back_end.DTO.AppointmentDTO;
-import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.PatientRepository;
@@ -22,19 +21,27 @@ public class PatientService {
 
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
-    private final TokenService tokenService;
+    private final PasswordHasher passwordHasher;
 
     public PatientService(PatientRepository patientRepository,
-            AppointmentRepository appointmentRepository, TokenService tokenService) {
+            AppointmentRepository appointmentRepository, PasswordHasher passwordHasher) {
         this.patientRepository = patientRepository;
         this.appointmentRepository = appointmentRepository;
-        this.tokenService = tokenService;
+        this.passwordHasher = passwordHasher;
     }
 
+    /**
+     * Hashes the password and saves a new patient.
+     *
+     * @return 1 on success, -1 if the password pool is saturated, 0 on other errors
+     */
     public int createPatient(Patient patient) {
         try {
+            patient.setPassword(passwordHasher.hash(patient.getPassword()));
             patientRepository.save(patient);
             return 1;
+        } catch (RejectedExecutionException e) {
+            return -1;
         } catch (Exception e) {
             System.out.println("Error: " + e);
             return 0;
@@ -43,24 +50,11 @@ public class PatientService {
     }
 
     @Transactional
-    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token) {
+    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id) {
         Map<String, Object> map = new HashMap<>();
 
         try {
-            List<Appointment> appointments = appointmentRepository.findByPatientId(id);
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(app -> new AppointmentDTO(
-                            app.getId(),
-                            app.getDoctor().getId(),
-                            app.getDoctor().getName(),
-                            app.getPatient().getId(),
-                            app.getPatient().getName(),
-                            app.getPatient().getEmail(),
-                            app.getPatient().getPhone(),
-                            app.getPatient().getAddress(),
-                            app.getApptTime(),
-                            app.getStatus()))
-                    .collect(Collectors.toList());
+            List<AppointmentDTO> appointmentDTOs = appointmentRepository.findByPatientId(id);
 
             map.put("appointments", appointmentDTOs);
             return ResponseEntity.status(HttpStatus.OK).body(map);
@@ -73,60 +67,28 @@ public class PatientService {
 
     public ResponseEntity<Map<String, Object>> filterByCondition(String condition, Long id) {
         Map<String, Object> map = new HashMap<>();
-        List<Appointment> appointments;
+        List<AppointmentDTO> appointmentDTOs;
 
         if (condition.equals("past")) {
-            appointments = appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(id, 1);
+            appointmentDTOs = appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(id, 1);
 
         } else if (condition.equals("future")) {
-            appointments = appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(id, 0);
+            appointmentDTOs = appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(id, 0);
 
         } else {
             map.put("error", "Invalid filter");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(map);
 
         }
-        List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                .map(app -> new AppointmentDTO(
-                        app.getId(),
-                        app.getDoctor().getId(),
-                        app.getDoctor().getName(),
-                        app.getPatient().getId(),
-                        app.getPatient().getName(),
-                        app.getPatient().getEmail(),
-                        app.getPatient().getPhone(),
-                        app.getPatient().getAddress(),
-                        app.getApptTime(),
-                        app.getStatus()))
-                .collect(Collectors.toList());
-
         map.put("appointments", appointmentDTOs);
         return ResponseEntity.status(HttpStatus.OK).body(map);
     }
 
     public ResponseEntity<Map<String, Object>> filterByDoctor(String name, Long patientId) {
         Map<String, Object> map = new HashMap<>();
-        List<Appointment> appointments = appointmentRepository.filterByDoctorNameAndPatientId(name,
+        List<AppointmentDTO> appointmentDTOs = appointmentRepository.filterByDoctorNameAndPatientId(name,
                 patientId);
 
-        for (Appointment appointment : appointments) {
-            System.out.println("" + appointment.getDoctor().getName());
-        }
-
-        List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                .map(app -> new AppointmentDTO(
-                        app.getId(),
-                        app.getDoctor().getId(),
-                        app.getDoctor().getName(),
-                        app.getPatient().getId(),
-                        app.getPatient().getName(),
-                        app.getPatient().getEmail(),
-                        app.getPatient().getPhone(),
-                        app.getPatient().getAddress(),
-                        app.getApptTime(),
-                        app.getStatus()))
-                .collect(Collectors.toList());
-
         map.put("appointments", appointmentDTOs);
         return ResponseEntity.status(HttpStatus.OK).body(map);
     }
@@ -134,38 +96,23 @@ public class PatientService {
     public ResponseEntity<Map<String, Object>> filterByDoctorAndCondition(
             String condition, String name, long patientId) {
         Map<String, Object> map = new HashMap<>();
-        List<Appointment> appointments;
+        List<AppointmentDTO> appointmentDTOs;
 
         if (condition.equals("past")) {
-            appointments = appointmentRepository.filterByDoctorNameAndPatientIdAndStatus(name, patientId, 1);
+            appointmentDTOs = appointmentRepository.filterByDoctorNameAndPatientIdAndStatus(name, patientId, 1);
         } else if (condition.equals("future")) {
-            appointments = appointmentRepository.filterByDoctorNameAndPatientIdAndStatus(name, patientId, 0);
+            appointmentDTOs = appointmentRepository.filterByDoctorNameAndPatientIdAndStatus(name, patientId, 0);
         } else {
             map.put("error", "Invalid filter");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(map);
         }
-        List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                .map(app -> new AppointmentDTO(
-                        app.getId(),
-                        app.getDoctor().getId(),
-                        app.getDoctor().getName(),
-                        app.getPatient().getId(),
-                        app.getPatient().getName(),
-                        app.getPatient().getEmail(),
-                        app.getPatient().getPhone(),
-                        app.getPatient().getAddress(),
-                        app.getApptTime(),
-                        app.getStatus()))
-                .collect(Collectors.toList());
-
         map.put("appointments", appointmentDTOs);
         return ResponseEntity.status(HttpStatus.OK).body(map);
     }
 
-    public ResponseEntity<Map<String,Object>> getPatientDetails(String token) {
+    public ResponseEntity<Map<String,Object>> getPatientDetails(Long patientId) {
         Map<String, Object> map = new HashMap<>();
-        String email = tokenService.extractEmail(token);
-        Patient patient=patientRepository.findByEmail(email);
+        Patient patient=patientRepository.findById(patientId).orElse(null);
         
         map.put("patient",patient);
         return ResponseEntity.status(HttpStatus.OK).body(map);
@@ -0,0 +1,159 @@
+package com.project.back_end.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.models.SlotMask;
+
+/**
+ * In-process ledger of slots claimed through this instance.
+ *
+ * Keeps one {@link AtomicLong} {@link SlotMask} of taken slots per doctor
+ * and day. A booking claims its bit with a single CAS before any SQL runs,
+ * so a burst of patients racing for the same slot is settled in memory and
+ * only the winner reaches the database. The database constraint stays the
+ * source of truth: a claim is released when the insert does not go
+ * through, slots booked elsewhere are learned from the constraint
+ * violation, and each day's mask is forgotten after a short TTL so
+ * cancellations made by other instances become visible again. A claim is
+ * released through the {@link Claim} it returned, against the mask it was
+ * made on, so a claim that outlives its day's TTL never clears a newer
+ * claim on the replacement mask.
+ */
+@Component
+public class ReservationLedger {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final ConcurrentHashMap<Key, Day> days = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+    private final AtomicLong nextSweep;
+    private final long ttlNanos;
+
+    @Autowired
+    public ReservationLedger(@Value("${appointments.ledger.ttl-seconds:30}") long ttlSeconds) {
+        this(ttlSeconds, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock Monotonic time source in nanoseconds; tests pass a fake one
+     */
+    ReservationLedger(long ttlSeconds, LongSupplier nanoClock) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.nanoClock = nanoClock;
+        this.nextSweep = new AtomicLong(nanoClock.getAsLong() + SWEEP_INTERVAL_NANOS);
+    }
+
+    /**
+     * Claims a slot for a booking about to be written.
+     *
+     * Times that are not on a slot boundary cannot be tracked and are
+     * always let through for the database to judge.
+     *
+     * @param doctorId Doctor being booked
+     * @param time Start of the requested slot
+     * @return null if the slot is already taken, otherwise the claim to
+     *         release if the booking does not go through
+     */
+    public Claim tryReserve(Long doctorId, LocalDateTime time) {
+        long bit = SlotMask.of(time.toLocalTime());
+        if (bit == SlotMask.NONE) return Claim.UNTRACKED;
+
+        Day day = day(doctorId, time.toLocalDate());
+        while (true) {
+            long current = day.taken.get();
+            if ((current & bit) != 0) return null;
+            if (day.taken.compareAndSet(current, current | bit)) return new Claim(day, bit);
+        }
+    }
+
+    /**
+     * Records a slot as taken without checking it, e.g. after the
+     * database reported it booked or a reschedule moved onto it.
+     */
+    public void markTaken(Long doctorId, LocalDateTime time) {
+        long bit = SlotMask.of(time.toLocalTime());
+        if (bit == SlotMask.NONE) return;
+
+        day(doctorId, time.toLocalDate()).taken.getAndUpdate(current -> current | bit);
+    }
+
+    /**
+     * Frees a booked slot after a cancellation or a reschedule away from
+     * it. Failed bookings release their {@link Claim} instead.
+     */
+    public void release(Long doctorId, LocalDateTime time) {
+        long bit = SlotMask.of(time.toLocalTime());
+        if (bit == SlotMask.NONE) return;
+
+        Day day = days.get(new Key(doctorId, time.toLocalDate()));
+        if (day != null) day.taken.getAndUpdate(current -> current & ~bit);
+    }
+
+    private Day day(Long doctorId, LocalDate date) {
+        long now = nanoClock.getAsLong();
+        sweepIfDue(now);
+
+        Key key = new Key(doctorId, date);
+        Day day = days.computeIfAbsent(key, k -> new Day(now + ttlNanos));
+        if (now - day.expiresAt >= 0) {
+            // Stale masks are replaced rather than cleared so a CAS in flight never sees a reset
+            days.remove(key, day);
+            day = days.computeIfAbsent(key, k -> new Day(now + ttlNanos));
+        }
+        return day;
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) return;
+
+        days.values().removeIf(day -> now - day.expiresAt >= 0);
+    }
+
+    /**
+     * A slot claimed by {@link #tryReserve}, tied to the day mask it was
+     * set on.
+     */
+    public static final class Claim {
+
+        private static final Claim UNTRACKED = new Claim(null, SlotMask.NONE);
+
+        private final Day day;
+        private final long bit;
+
+        private Claim(Day day, long bit) {
+            this.day = day;
+            this.bit = bit;
+        }
+
+        /**
+         * Gives the slot back after the booking did not go through. Only
+         * the mask the claim was made on is touched; once that mask has
+         * expired and been replaced this is a no-op.
+         */
+        public void release() {
+            if (day != null) day.taken.getAndUpdate(current -> current & ~bit);
+        }
+    }
+
+    private record Key(Long doctorId, LocalDate date) {
+    }
+
+    private static final class Day {
+        private final AtomicLong taken = new AtomicLong(SlotMask.NONE);
+        private final long expiresAt;
+
+        private Day(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,20 +1,21 @@
 package com.project.back_end.services;
 
-import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import com.project.back_end.DTO.DoctorQuery;
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Admin;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
+import com.project.back_end.models.SlotMask;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
@@ -28,16 +29,19 @@ public class Service {
     private final DoctorService doctorService;
     private final PatientRepository patientRepository;
     private final PatientService patientService;
+    private final PasswordHasher passwordHasher;
 
     public Service(TokenService tokenService, AdminRepository adminRepository,
             DoctorService doctorService, DoctorRepository doctorRepository,
-            PatientRepository patientRepository,PatientService patientService) {
+            PatientRepository patientRepository,PatientService patientService,
+            PasswordHasher passwordHasher) {
         this.tokenService = tokenService;
         this.adminRepository = adminRepository;
         this.doctorService = doctorService;
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
         this.patientService=patientService;
+        this.passwordHasher = passwordHasher;
     }
 
     public ResponseEntity<Map<String, String>> validateToken(String token, String user) {
@@ -56,8 +60,13 @@ public class Service {
         try {
             Admin admin = adminRepository.findByUsername(receivedAdmin.getUsername());
             if (admin != null) {
-                if (admin.getPassword().equals(receivedAdmin.getPassword())) {
-                    map.put("token", tokenService.generateToken(admin.getUsername()));
+                boolean matches = passwordHasher.matches(receivedAdmin.getPassword(), admin.getPassword(),
+                        rehashed -> {
+                            admin.setPassword(rehashed);
+                            adminRepository.save(admin);
+                        });
+                if (matches) {
+                    map.put("token", tokenService.generateToken(admin.getUsername(), "admin", admin.getId()));
                     return ResponseEntity.status(HttpStatus.OK).body(map);
                 } else {
                     map.put("error", "Password does not match");
@@ -67,6 +76,10 @@ public class Service {
             map.put("error", "invalid email id");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(map);
 
+        } catch (RejectedExecutionException e) {
+            map.put("error", "Too many login attempts, please try again");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1").body(map);
         } catch (Exception e) {
             map.put("error", "Internal Server error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(map);
@@ -74,45 +87,18 @@ public class Service {
     }
 
     public Map<String, Object> filterDoctor(String name, String specility, String time) {
-        Map<String, Object> map = new HashMap<>();
-        if (!name.equals("null") && !time.equals("null") && !specility.equals("null")) {
-            map = doctorService.filterDoctorsByNameSpecilityandTime(name, specility, time);
-        } else if (!name.equals("null") && !time.equals("null")) {
-            map = doctorService.filterDoctorByNameAndTime(name, time);
-        } else if (!name.equals("null") && !specility.equals("null")) {
-            map = doctorService.filterDoctorByNameAndSpecility(name, specility);
-        } else if (!specility.equals("null") && !time.equals("null")) {
-            map = doctorService.filterDoctorByTimeAndSpecility(specility, time);
-        } else if (!name.equals("null")) {
-            map = doctorService.findDoctorByName(name);
-        } else if (!specility.equals("null")) {
-            map = doctorService.filterDoctorBySpecility(specility);
-        } else if (!time.equals("null")) {
-            map = doctorService.filterDoctorsByTime(time);
-        } else {
-            map.put("doctors", doctorService.getDoctors());
-        }
-        return map;
+        return doctorService.searchDoctors(DoctorQuery.fromFilterPath(name, specility, time));
     }
 
     public int validateAppointment(Appointment appointment) {
         Doctor doctor = appointment.getDoctor();
-        Optional<Doctor> result = doctorRepository.findById(doctor.getId());
+        Optional<Doctor> result = doctorRepository.findWithAvailabilityById(doctor.getId());
         if (result.isEmpty()) {
             return -1;
         }
-        LocalDate appointmentDate = appointment.getAppointmentDate();
-        LocalTime appointmentTime = appointment.getAppointmentTimeOnly();
-        List<String> availableTime = doctorService.getDoctorAvailability(doctor.getId(), appointmentDate);
-
-        for (String timeSlot : availableTime) {
-            String[] times = timeSlot.split("-");
-            LocalTime startTime = LocalTime.parse(times[0]);
-
-            if (appointmentTime.equals(startTime)) return 1;
-        }
+        long freeSlots = doctorService.getAvailableSlotMask(result.get(), appointment.getAppointmentDate());
 
-        return 0;
+        return SlotMask.contains(freeSlots, appointment.getAppointmentTimeOnly()) ? 1 : 0;
     }
 
     public boolean validatePatient(Patient patient) {
@@ -127,8 +113,13 @@ public class Service {
         try {
             Patient result = patientRepository.findByEmail(login.getEmail());
             if (result != null) {
-                if (result.getPassword().equals(login.getPassword())) {
-                    map.put("token", tokenService.generateToken(login.getEmail()));
+                boolean matches = passwordHasher.matches(login.getPassword(), result.getPassword(),
+                        rehashed -> {
+                            result.setPassword(rehashed);
+                            patientRepository.save(result);
+                        });
+                if (matches) {
+                    map.put("token", tokenService.generateToken(login.getEmail(), "patient", result.getId()));
                     return ResponseEntity.status(HttpStatus.OK).body(map);
                 } else {
                     map.put("error", "Password does not match");
@@ -138,16 +129,17 @@ public class Service {
 
             map.put("error", "invalid email id");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(map);
+        } catch (RejectedExecutionException e) {
+            map.put("error", "Too many login attempts, please try again");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1").body(map);
         } catch (Exception e) {
             map.put("error", "Internal Server error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(map);
         }
     }
 
-    public ResponseEntity<Map<String,Object>> filterPatient(String condition,String name,String token) {
-        String extractedEmail = tokenService.extractEmail(token);
-        Long patientId = patientRepository.findByEmail(extractedEmail).getId();
-
+    public ResponseEntity<Map<String,Object>> filterPatient(String condition,String name,Long patientId) {
         if(name.equals("null") && !condition.equals("null")) {
             return patientService.filterByCondition(condition,patientId);
         } else if(condition.equals("null")&& !name.equals("null")) {
@@ -155,7 +147,7 @@ public class Service {
         } else if(!condition.equals("null")&& !name.equals("null")) {
             return patientService.filterByDoctorAndCondition(condition,name,patientId);
         } else {
-            return patientService.getPatientAppointment(patientId,token);
+            return patientService.getPatientAppointment(patientId);
         }
     }
 }
\ No newline at end of file
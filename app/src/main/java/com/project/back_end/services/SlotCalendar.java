@@ -0,0 +1,222 @@
+package com.project.back_end.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.DTO.BookedSlotRow;
+import com.project.back_end.models.SlotCalendarDay;
+import com.project.back_end.models.SlotMask;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.SlotCalendarRepository;
+
+/**
+ * Materialized calendar of booked slots per doctor and day.
+ *
+ * Appointment writes call {@link #book} and {@link #release} inside their
+ * own transaction, so availability reads need one primary-key lookup
+ * instead of scanning appointments. The offered slots are not stored:
+ * they come from the doctor, so availability edits never rewrite the
+ * calendar. {@link #rebuild()} recomputes every current and future day
+ * from the appointment table and repairs rows that drifted, e.g. after
+ * appointments were loaded with plain SQL.
+ */
+@Component
+public class SlotCalendar {
+
+    static final String TABLE = "slot_calendar";
+
+    private static final Logger log = LoggerFactory.getLogger(SlotCalendar.class);
+
+    private final SlotCalendarRepository slotCalendarRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final boolean rebuildOnStartup;
+
+    public SlotCalendar(SlotCalendarRepository slotCalendarRepository,
+            AppointmentRepository appointmentRepository,
+            @Value("${clinic.slot-calendar.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.slotCalendarRepository = slotCalendarRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    /**
+     * Returns the slots booked for a doctor on a day; one primary-key read.
+     */
+    public long bookedMask(Long doctorId, LocalDate date) {
+        return slotCalendarRepository.findBookedMask(doctorId, date).orElse(SlotMask.NONE);
+    }
+
+    /**
+     * Returns booked slots per day for a doctor over a date range.
+     * Days without bookings are absent from the map.
+     */
+    public Map<LocalDate, Long> bookedMasks(Long doctorId, LocalDate start, LocalDate end) {
+        Map<LocalDate, Long> masks = new HashMap<>();
+        for (SlotCalendarDay day : slotCalendarRepository.findByDoctorIdAndSlotDateBetween(doctorId, start, end)) {
+            masks.put(day.getSlotDate(), day.getBookedMask());
+        }
+        return masks;
+    }
+
+    /**
+     * Returns booked slots per doctor on one day.
+     * Doctors without bookings are absent from the map.
+     */
+    public Map<Long, Long> bookedMasks(Collection<Long> doctorIds, LocalDate date) {
+        Map<Long, Long> masks = new HashMap<>();
+        for (SlotCalendarDay day : slotCalendarRepository.findByDoctorIdInAndSlotDate(doctorIds, date)) {
+            masks.put(day.getDoctorId(), day.getBookedMask());
+        }
+        return masks;
+    }
+
+    /**
+     * Marks a slot booked. Must run in the transaction that inserts or
+     * moves the appointment. When two transactions create the same day
+     * at once, the loser fails on the primary key; see
+     * {@link #isDayCreationRace}.
+     */
+    public void book(Long doctorId, LocalDateTime time) {
+        long bit = SlotMask.of(time.toLocalTime());
+        if (bit == SlotMask.NONE) return;
+
+        LocalDate date = time.toLocalDate();
+        if (slotCalendarRepository.setBookedSlots(doctorId, date, bit) == 0) {
+            slotCalendarRepository.insertDay(doctorId, date, bit);
+        }
+    }
+
+    /**
+     * Locks a doctor's calendar days for a booking that takes several slots
+     * at once. Must run in the booking transaction; single bookings on the
+     * locked days wait until it ends. Days without bookings are absent from
+     * the map and are not locked.
+     */
+    public Map<LocalDate, SlotCalendarDay> lockDays(Long doctorId, Collection<LocalDate> dates) {
+        Map<LocalDate, SlotCalendarDay> days = new HashMap<>();
+        for (SlotCalendarDay day : slotCalendarRepository.lockDays(doctorId, dates)) {
+            days.put(day.getSlotDate(), day);
+        }
+        return days;
+    }
+
+    /**
+     * Marks several slots booked on days returned by {@link #lockDays}.
+     * Changed and new days are written at flush, batched with the rest of
+     * the transaction. A day missing from the map that another transaction
+     * creates meanwhile fails on the primary key; see
+     * {@link #isDayCreationRace}.
+     */
+    public void bookAll(Long doctorId, Map<LocalDate, SlotCalendarDay> lockedDays, Collection<LocalDateTime> times) {
+        Map<LocalDate, SlotCalendarDay> created = new HashMap<>();
+        for (LocalDateTime time : times) {
+            long bit = SlotMask.of(time.toLocalTime());
+            if (bit == SlotMask.NONE) continue;
+
+            LocalDate date = time.toLocalDate();
+            SlotCalendarDay day = lockedDays.get(date);
+            if (day == null) {
+                day = created.computeIfAbsent(date, d -> new SlotCalendarDay(doctorId, d, SlotMask.NONE));
+            }
+            day.book(bit);
+        }
+        slotCalendarRepository.saveAll(created.values());
+    }
+
+    /**
+     * Marks a slot free again. Must run in the transaction that deletes or
+     * moves the appointment.
+     */
+    public void release(Long doctorId, LocalDateTime time) {
+        long bit = SlotMask.of(time.toLocalTime());
+        if (bit == SlotMask.NONE) return;
+
+        slotCalendarRepository.keepBookedSlots(doctorId, time.toLocalDate(), ~bit);
+    }
+
+    public void removeDoctor(Long doctorId) {
+        slotCalendarRepository.deleteAllByDoctorId(doctorId);
+    }
+
+    /**
+     * Tells whether a write failed because another transaction created the
+     * same calendar day first. Retrying the write then succeeds.
+     */
+    public static boolean isDayCreationRace(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(TABLE);
+    }
+
+    /**
+     * Checks every calendar day from today on against the appointment
+     * table and repairs the ones that differ.
+     *
+     * Rows are read before appointments and repaired with compare-and-set
+     * updates, so a booking committed while the check runs makes the
+     * repair of its day a no-op instead of being overwritten. Days before
+     * today are dropped.
+     *
+     * @return Number of days inserted, corrected or removed
+     */
+    public int rebuild() {
+        LocalDate today = LocalDate.now();
+        slotCalendarRepository.deleteBefore(today);
+
+        Map<SlotCalendarDay.Key, Long> stored = new HashMap<>();
+        for (SlotCalendarDay day : slotCalendarRepository.findBySlotDateGreaterThanEqual(today)) {
+            stored.put(new SlotCalendarDay.Key(day.getDoctorId(), day.getSlotDate()), day.getBookedMask());
+        }
+
+        Map<SlotCalendarDay.Key, Long> expected = new HashMap<>();
+        for (BookedSlotRow row : appointmentRepository.findBookedSlotsFrom(today.atStartOfDay())) {
+            expected.merge(new SlotCalendarDay.Key(row.getDoctorId(), row.getAppointmentTime().toLocalDate()),
+                    SlotMask.of(row.getAppointmentTime().toLocalTime()), (a, b) -> a | b);
+        }
+
+        int repaired = 0;
+        for (Map.Entry<SlotCalendarDay.Key, Long> entry : stored.entrySet()) {
+            SlotCalendarDay.Key key = entry.getKey();
+            long seen = entry.getValue();
+            long want = expected.getOrDefault(key, SlotMask.NONE);
+            if (seen == want) continue;
+
+            repaired += want == SlotMask.NONE
+                    ? slotCalendarRepository.deleteIfUnchanged(key.getDoctorId(), key.getSlotDate(), seen)
+                    : slotCalendarRepository.compareAndSetBookedMask(key.getDoctorId(), key.getSlotDate(), seen, want);
+        }
+        for (Map.Entry<SlotCalendarDay.Key, Long> entry : expected.entrySet()) {
+            SlotCalendarDay.Key key = entry.getKey();
+            if (stored.containsKey(key) || entry.getValue() == SlotMask.NONE) continue;
+
+            try {
+                repaired += slotCalendarRepository.insertDay(key.getDoctorId(), key.getSlotDate(), entry.getValue());
+            } catch (DataIntegrityViolationException e) {
+                // Created by a booking since the rows were read; that booking keeps it correct
+            }
+        }
+
+        return repaired;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        if (!rebuildOnStartup) return;
+
+        int repaired = rebuild();
+        if (repaired > 0) {
+            log.info("Slot calendar: repaired {} day(s)", repaired);
+        }
+    }
+}
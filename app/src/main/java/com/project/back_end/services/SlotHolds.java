@@ -0,0 +1,213 @@
+package com.project.back_end.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.models.SlotMask;
+
+/**
+ * Short-lived holds a patient places on a slot between viewing
+ * availability and confirming the booking.
+ *
+ * Holds are kept per doctor and day, one entry per slot, so availability
+ * reads hide held slots with a single map lookup. Each patient holds at
+ * most one slot; holding another releases the previous one. Expired holds
+ * are ignored on read and reclaimed by a hashed timing wheel of one-second
+ * buckets: each hold is queued in the bucket of its expiry tick, and every
+ * call first drains the buckets whose tick has passed, so reclaiming costs
+ * the number of expired holds rather than a scan of all of them. Holds are
+ * local to this instance, like the {@link ReservationLedger}.
+ */
+@Component
+public class SlotHolds {
+
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int WHEEL_SIZE = 512;
+
+    private final ConcurrentHashMap<DayKey, AtomicReferenceArray<Hold>> days = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Hold> byPatient = new ConcurrentHashMap<>();
+    private final List<Queue<Hold>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private final ReentrantLock advanceLock = new ReentrantLock();
+    private final long startNanos = System.nanoTime();
+    private final long ttlTicks;
+    private volatile long drainedTick;
+
+    public SlotHolds(@Value("${appointments.holds.ttl-seconds:120}") long ttlSeconds) {
+        this.ttlTicks = Math.max(1, ttlSeconds);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    public long getTtlSeconds() {
+        return ttlTicks;
+    }
+
+    /**
+     * Holds a slot for a patient, or extends the patient's own hold on it.
+     *
+     * @param doctorId Doctor being booked
+     * @param time Start of the slot
+     * @param patientId Patient placing the hold
+     * @return false if another patient holds the slot or the time is not on a slot boundary
+     */
+    public boolean hold(Long doctorId, LocalDateTime time, Long patientId) {
+        int slot = slotIndex(time);
+        if (slot < 0) return false;
+
+        long now = advance();
+        Hold hold = new Hold(new DayKey(doctorId, time.toLocalDate()), slot, patientId, now + ttlTicks);
+        boolean[] placed = { false };
+        days.compute(hold.day, (key, slots) -> {
+            if (slots == null) slots = new AtomicReferenceArray<>(SlotMask.SLOTS_PER_DAY);
+            Hold current = slots.get(slot);
+            if (current == null || !current.isLive(now) || current.patientId.equals(patientId)) {
+                slots.set(slot, hold);
+                placed[0] = true;
+            }
+            return slots;
+        });
+        if (!placed[0]) return false;
+
+        Hold previous = byPatient.put(patientId, hold);
+        if (previous != null && (previous.slot != slot || !previous.day.equals(hold.day))) {
+            remove(previous);
+        }
+        wheel.get((int) (hold.expiresAt % WHEEL_SIZE)).add(hold);
+        return true;
+    }
+
+    /**
+     * Tells whether a live hold of another patient blocks booking a slot.
+     */
+    public boolean isHeldByOther(Long doctorId, LocalDateTime time, Long patientId) {
+        int slot = slotIndex(time);
+        if (slot < 0) return false;
+
+        long now = advance();
+        AtomicReferenceArray<Hold> slots = days.get(new DayKey(doctorId, time.toLocalDate()));
+        if (slots == null) return false;
+
+        Hold current = slots.get(slot);
+        return current != null && current.isLive(now) && !current.patientId.equals(patientId);
+    }
+
+    /**
+     * Returns the slots of a doctor's day held by any patient, as a
+     * {@link SlotMask}.
+     */
+    public long heldMask(Long doctorId, LocalDate date) {
+        long now = advance();
+        AtomicReferenceArray<Hold> slots = days.get(new DayKey(doctorId, date));
+        if (slots == null) return SlotMask.NONE;
+
+        long mask = SlotMask.NONE;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            Hold current = slots.get(slot);
+            if (current != null && current.isLive(now)) mask |= 1L << slot;
+        }
+        return mask;
+    }
+
+    /**
+     * Drops the patient's hold on a slot, e.g. once the booking it
+     * protected is confirmed or the patient backs out. Holds of other
+     * patients are left alone.
+     */
+    public void release(Long doctorId, LocalDateTime time, Long patientId) {
+        int slot = slotIndex(time);
+        if (slot < 0) return;
+
+        advance();
+        AtomicReferenceArray<Hold> slots = days.get(new DayKey(doctorId, time.toLocalDate()));
+        if (slots == null) return;
+
+        Hold current = slots.get(slot);
+        if (current != null && current.patientId.equals(patientId)) remove(current);
+    }
+
+    private void remove(Hold hold) {
+        byPatient.remove(hold.patientId, hold);
+        days.computeIfPresent(hold.day, (key, slots) -> {
+            slots.compareAndSet(hold.slot, hold, null);
+            return isEmpty(slots) ? null : slots;
+        });
+    }
+
+    /**
+     * Drains every wheel bucket whose tick has passed and removes the
+     * holds in it that are due. Holds extended since they were queued are
+     * no longer in the map and are skipped; holds due in a later turn of
+     * the wheel go back into their bucket.
+     *
+     * @return The current tick
+     */
+    private long advance() {
+        long now = (System.nanoTime() - startNanos) / TICK_NANOS;
+        if (now <= drainedTick || !advanceLock.tryLock()) return now;
+
+        try {
+            long from = Math.max(drainedTick + 1, now - WHEEL_SIZE + 1);
+            for (long tick = from; tick <= now; tick++) {
+                Queue<Hold> bucket = wheel.get((int) (tick % WHEEL_SIZE));
+                List<Hold> later = new ArrayList<>();
+                for (Hold hold = bucket.poll(); hold != null; hold = bucket.poll()) {
+                    if (hold.isLive(now)) {
+                        later.add(hold);
+                    } else {
+                        remove(hold);
+                    }
+                }
+                bucket.addAll(later);
+            }
+            drainedTick = now;
+        } finally {
+            advanceLock.unlock();
+        }
+        return now;
+    }
+
+    private static int slotIndex(LocalDateTime time) {
+        long bit = SlotMask.of(time.toLocalTime());
+        return bit == SlotMask.NONE ? -1 : Long.numberOfTrailingZeros(bit);
+    }
+
+    private static boolean isEmpty(AtomicReferenceArray<Hold> slots) {
+        for (int slot = 0; slot < slots.length(); slot++) {
+            if (slots.get(slot) != null) return false;
+        }
+        return true;
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+
+    private static final class Hold {
+        private final DayKey day;
+        private final int slot;
+        private final Long patientId;
+        private final long expiresAt;
+
+        private Hold(DayKey day, int slot, Long patientId, long expiresAt) {
+            this.day = day;
+            this.slot = slot;
+            this.patientId = patientId;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isLive(long now) {
+            return now < expiresAt;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.project.back_end.services;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.project.back_end.models.Specialty;
+import com.project.back_end.repo.SpecialtyRepository;
+
+/**
+ * In-memory id/name map of the specialty lookup table.
+ *
+ * Loaded on first use and replaced copy-on-write when a new specialty is
+ * created, so lookups are a single volatile read. Names are matched
+ * case-insensitively and stored in canonical form, so "cardiologist" and
+ * "Cardiologist" resolve to the same row.
+ */
+@Component
+public class SpecialtyRegistry {
+
+    private final SpecialtyRepository specialtyRepository;
+
+    // Lower-cased canonical name -> specialty
+    private volatile Map<String, Specialty> byName;
+
+    public SpecialtyRegistry(SpecialtyRepository specialtyRepository) {
+        this.specialtyRepository = specialtyRepository;
+    }
+
+    /**
+     * Returns the specialty for a name, creating it if it does not exist yet.
+     *
+     * @param name Specialty as entered, in any case
+     * @return Persisted specialty
+     */
+    public Specialty resolve(String name) {
+        String canonical = canonical(name);
+        Specialty specialty = names().get(key(canonical));
+        if (specialty != null) return specialty;
+
+        synchronized (this) {
+            specialty = names().get(key(canonical));
+            if (specialty != null) return specialty;
+
+            try {
+                specialty = specialtyRepository.save(new Specialty(canonical));
+            } catch (DataIntegrityViolationException e) {
+                // Created concurrently by another instance
+                specialty = specialtyRepository.findByNameIgnoreCase(canonical).orElseThrow(() -> e);
+            }
+            Map<String, Specialty> updated = new HashMap<>(byName);
+            updated.put(key(canonical), specialty);
+            byName = updated;
+            return specialty;
+        }
+    }
+
+    /**
+     * Canonical spelling of a specialty: trimmed, single-spaced, each word
+     * capitalized. Matches PostgreSQL's INITCAP used by the migration.
+     */
+    static String canonical(String name) {
+        String trimmed = name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        StringBuilder result = new StringBuilder(trimmed.length());
+        boolean wordStart = true;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            result.append(wordStart ? Character.toUpperCase(c) : c);
+            wordStart = !Character.isLetterOrDigit(c);
+        }
+        return result.toString();
+    }
+
+    private static String key(String canonical) {
+        return canonical.toLowerCase(Locale.ROOT);
+    }
+
+    private Map<String, Specialty> names() {
+        Map<String, Specialty> current = byName;
+        if (current != null) return current;
+
+        synchronized (this) {
+            if (byName == null) {
+                Map<String, Specialty> loaded = new HashMap<>();
+                for (Specialty specialty : specialtyRepository.findAll()) {
+                    loaded.put(key(specialty.getName()), specialty);
+                }
+                byName = loaded;
+            }
+            return byName;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.project.back_end.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import com.project.back_end.DTO.DoctorView;
+import com.project.back_end.DTO.Suggestion;
+
+/**
+ * Immutable prefix index of doctor names for autocomplete.
+ *
+ * Keeps two arrays sorted by lower-cased key: whole names, and the tail of
+ * each name starting at every later word (so "Dr. Emily Adams" is also
+ * found by "emi" and "ada"). A lookup binary-searches the first key at or
+ * after the prefix and reads forward until k doctors are collected, whole
+ * name matches first. Updates merge one doctor's keys into copies of the
+ * arrays instead of sorting again.
+ */
+public final class SuggestionIndex {
+
+    private static final String DOCTOR = "doctor";
+
+    private final Keys names;
+    private final Keys words;
+
+    private SuggestionIndex(Keys names, Keys words) {
+        this.names = names;
+        this.words = words;
+    }
+
+    public static SuggestionIndex build(List<DoctorView> doctors) {
+        List<Key> names = new ArrayList<>();
+        List<Key> words = new ArrayList<>();
+        for (DoctorView doctor : doctors) {
+            addKeys(doctor, names, words);
+        }
+        return new SuggestionIndex(Keys.sorted(names), Keys.sorted(words));
+    }
+
+    /**
+     * Returns a copy with one doctor's keys replaced.
+     *
+     * @param removedId Doctor whose keys are dropped, or null
+     * @param added Doctor whose keys are added, or null
+     */
+    public SuggestionIndex update(Long removedId, DoctorView added) {
+        List<Key> addedNames = new ArrayList<>();
+        List<Key> addedWords = new ArrayList<>();
+        if (added != null) addKeys(added, addedNames, addedWords);
+
+        return new SuggestionIndex(names.merge(removedId, Keys.sorted(addedNames)),
+                words.merge(removedId, Keys.sorted(addedWords)));
+    }
+
+    /**
+     * Returns up to {@code limit} doctors whose name, or a word in it,
+     * starts with the prefix.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        List<Suggestion> out = new ArrayList<>(limit);
+        String p = normalize(prefix);
+        if (p.isEmpty() || limit <= 0) return out;
+
+        Set<Long> seen = new HashSet<>();
+        names.collect(p, limit, seen, out);
+        words.collect(p, limit, seen, out);
+        return out;
+    }
+
+    static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void addKeys(DoctorView doctor, List<Key> names, List<Key> words) {
+        String label = doctor.getName();
+        String name = normalize(label);
+        if (name.isEmpty()) return;
+
+        names.add(new Key(name, doctor.getId(), label));
+        for (int i = 1; i < name.length(); i++) {
+            if (Character.isLetterOrDigit(name.charAt(i)) && !Character.isLetterOrDigit(name.charAt(i - 1))) {
+                words.add(new Key(name.substring(i), doctor.getId(), label));
+            }
+        }
+    }
+
+    private record Key(String key, long id, String label) {
+    }
+
+    private static final class Keys {
+
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::key).thenComparingLong(Key::id);
+
+        private final String[] keys;
+        private final long[] ids;
+        private final String[] labels;
+
+        private Keys(int size) {
+            keys = new String[size];
+            ids = new long[size];
+            labels = new String[size];
+        }
+
+        static Keys sorted(List<Key> entries) {
+            entries.sort(ORDER);
+            Keys result = new Keys(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                result.set(i, entries.get(i).key, entries.get(i).id, entries.get(i).label);
+            }
+            return result;
+        }
+
+        // Single merge pass: drops removedId's entries and interleaves the added ones
+        Keys merge(Long removedId, Keys added) {
+            int removed = 0;
+            if (removedId != null) {
+                for (long id : ids) {
+                    if (id == removedId) removed++;
+                }
+            }
+
+            Keys result = new Keys(keys.length - removed + added.keys.length);
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < keys.length || j < added.keys.length) {
+                if (i < keys.length && removedId != null && ids[i] == removedId) {
+                    i++;
+                } else if (j >= added.keys.length || (i < keys.length && compare(i, added, j) <= 0)) {
+                    result.set(k++, keys[i], ids[i], labels[i]);
+                    i++;
+                } else {
+                    result.set(k++, added.keys[j], added.ids[j], added.labels[j]);
+                    j++;
+                }
+            }
+            return result;
+        }
+
+        void collect(String prefix, int limit, Set<Long> seen, List<Suggestion> out) {
+            for (int i = lowerBound(prefix); i < keys.length && out.size() < limit; i++) {
+                if (!keys[i].startsWith(prefix)) return;
+                if (seen.add(ids[i])) out.add(new Suggestion(DOCTOR, ids[i], labels[i]));
+            }
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        private int compare(int i, Keys other, int j) {
+            int cmp = keys[i].compareTo(other.keys[j]);
+            return cmp != 0 ? cmp : Long.compare(ids[i], other.ids[j]);
+        }
+
+        private void set(int index, String key, long id, String label) {
+            keys[index] = key;
+            ids[index] = id;
+            labels[index] = label;
+        }
+    }
+}
@@ -1,79 +1,167 @@
 package com.project.back_end.services;
 
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.crypto.SecretKey;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import com.project.back_end.models.Admin;
-import com.project.back_end.models.Doctor;
-import com.project.back_end.models.Patient;
-import com.project.back_end.repo.AdminRepository;
-import com.project.back_end.repo.DoctorRepository;
-import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class TokenService {
 
+    public static final String ROLE_CLAIM = "role";
+    public static final String ID_CLAIM = "uid";
+
+    private static final long TOKEN_TTL_MILLIS = 1000L * 60 * 60 * 24 * 7;
+
     @Value("${jwt.secret}")
     private String secret;
 
-    private final AdminRepository adminRepository;
-    private final DoctorRepository doctorRepository;
-    private final PatientRepository patientRepository;
-    
-    public TokenService(AdminRepository adminRepository, 
-            DoctorRepository doctorRepository, PatientRepository patientRepository) {
-        this.adminRepository=adminRepository;
-        this.doctorRepository = doctorRepository;
-        this.patientRepository=patientRepository;
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private int claimsCacheMaxEntries;
+
+    private final MeterRegistry meterRegistry;
+
+    // Principal key ("role:id") -> tokens issued at or before this instant are rejected
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    // Built once from the secret; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private ClaimsCache claimsCache;
+
+    public TokenService(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        claimsCache = new ClaimsCache(claimsCacheMaxEntries, meterRegistry);
     }
 
-    public String generateToken(String email) {
+    /**
+     * Issues a signed token for an authenticated principal.
+     *
+     * The role and numeric id travel as signed claims so later requests
+     * can be authorized without looking the principal up again.
+     *
+     * @param subject Email (doctor/patient) or username (admin)
+     * @param role One of "admin", "doctor" or "patient"
+     * @param id Database id of the principal
+     * @return Compact JWT string valid for seven days
+     */
+    public String generateToken(String subject, String role, Long id) {
         return Jwts.builder()
-                .subject(email)
+                .subject(subject)
+                .claim(ROLE_CLAIM, role)
+                .claim(ID_CLAIM, id)
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + 1000L * 60 * 60 * 24 * 7))
-                .signWith(getSigningKey())
+                .expiration(new Date(System.currentTimeMillis() + TOKEN_TTL_MILLIS))
+                .signWith(signingKey)
                 .compact();
-    }    
+    }
 
     public String extractEmail(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return extractClaims(token).getSubject();
+    }
+
+    /**
+     * Verifies the token and returns its claims.
+     *
+     * Signature checks are skipped for tokens already verified and still
+     * within their expiry, which are served from the claims cache.
+     *
+     * @param token Compact JWT string
+     * @return Verified claims of the token
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims extractClaims(String token) {
+        String digest = ClaimsCache.digest(token);
+        Claims claims = claimsCache.get(digest);
+        if (claims != null) return claims;
+
+        claims = parser.parseSignedClaims(token).getPayload();
+        claimsCache.put(digest, claims);
+        return claims;
     }
 
+    /**
+     * Checks that the token is valid for the given role.
+     *
+     * Purely in-memory: verifies the signature (or hits the claims cache),
+     * compares the signed role claim and consults the revocation map.
+     * Tokens issued before role claims existed are rejected.
+     *
+     * @param token Compact JWT string
+     * @param user Expected role ("admin", "doctor" or "patient")
+     * @return true when the token belongs to a live principal of that role
+     */
     public boolean validateToken(String token,String user) {
+        AuthenticatedPrincipal principal = resolvePrincipal(token);
+        return principal != null && principal.getRole().equals(user);
+    }
+
+    /**
+     * Resolves the principal a token was issued to.
+     *
+     * @param token Compact JWT string
+     * @return The principal, or null if the token is invalid, expired,
+     *         missing role claims or revoked
+     */
+    public AuthenticatedPrincipal resolvePrincipal(String token) {
         try {
-            String extracted = extractEmail(token);
-            if(user.equals("admin")) {
-                Admin admin =adminRepository.findByUsername(extracted);
-                if(admin!=null) return true;
-            } else if(user.equals("doctor")) {
-                Doctor doctor=doctorRepository.findByEmail(extracted);
-                if(doctor!=null) return true;
-            } else if(user.equals("patient")) {
-                Patient patient=patientRepository.findByEmail(extracted);
-                if(patient!=null) return true;
-            }
-
-            return false;
+            Claims claims = extractClaims(token);
+            String role = claims.get(ROLE_CLAIM, String.class);
+            Number id = claims.get(ID_CLAIM, Number.class);
+            if (role == null || id == null) return null;
+            if (isRevoked(role, id.longValue(), claims.getIssuedAt())) return null;
+
+            return new AuthenticatedPrincipal(role, claims.getSubject(), id.longValue());
         } catch (Exception e) {
-            return false;
+            return null;
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Invalidates every token issued so far to a principal.
+     *
+     * Called when an account is deleted or its login identity changes.
+     * Entries older than the token lifetime are dropped since any token
+     * they could reject has already expired.
+     *
+     * @param role Role of the principal
+     * @param id Database id of the principal
+     */
+    public void revoke(String role, Long id) {
+        long now = System.currentTimeMillis();
+        revokedBefore.put(role + ":" + id, now);
+        revokedBefore.values().removeIf(cutoff -> cutoff < now - TOKEN_TTL_MILLIS);
+    }
+
+    private boolean isRevoked(String role, long id, Date issuedAt) {
+        Long cutoff = revokedBefore.get(role + ":" + id);
+        if (cutoff == null) return false;
+
+        // iat has second precision, so tokens from the revoking second are rejected too
+        return issuedAt == null || issuedAt.getTime() <= cutoff;
+    }
+
+}
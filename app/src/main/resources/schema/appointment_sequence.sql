@@ -0,0 +1,15 @@
+-- Moves appointment ids from an IDENTITY column to the pooled sequence
+-- the application allocates from (50 ids per call, which lets Hibernate
+-- batch appointment inserts).
+-- The sequence returns the top of each block of 50, so it starts 50 past
+-- the highest existing id. The column default keeps plain SQL inserts,
+-- such as sampledata.sql, working; values taken that way never fall into
+-- a block the application has reserved.
+-- Run once against an existing database before starting this version.
+
+CREATE SEQUENCE IF NOT EXISTS appointment_seq INCREMENT BY 50;
+
+SELECT setval('appointment_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM appointment), false);
+
+ALTER TABLE appointment ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE appointment ALTER COLUMN id SET DEFAULT nextval('appointment_seq');
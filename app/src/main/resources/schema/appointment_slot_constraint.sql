@@ -0,0 +1,13 @@
+-- Makes a doctor's time slot bookable at most once.
+-- Duplicate bookings left over from before the constraint are reported
+-- first; keep the oldest row of each pair and delete the others before
+-- running the ALTER, or the constraint cannot be created.
+-- Run once against an existing database before starting this version.
+
+SELECT doctor_id, appointment_time, ARRAY_AGG(id ORDER BY id) AS appointment_ids
+FROM appointment
+GROUP BY doctor_id, appointment_time
+HAVING COUNT(*) > 1;
+
+ALTER TABLE appointment
+    ADD CONSTRAINT uk_appointment_doctor_time UNIQUE (doctor_id, appointment_time);
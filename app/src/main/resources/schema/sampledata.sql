@@ -1,29 +1,35 @@
-INSERT INTO doctor (email, name, password, phone, specialty) VALUES
-('dr.adams@example.com', 'Dr. Emily Adams', 'pass12345', '555-101-2020', 'Cardiologist'),
-('dr.johnson@example.com', 'Dr. Mark Johnson', 'secure4567', '555-202-3030', 'Neurologist'),
-('dr.lee@example.com', 'Dr. Sarah Lee', 'leePass987', '555-303-4040', 'Orthopedist'),
-('dr.wilson@example.com', 'Dr. Tom Wilson', 'w!ls0nPwd', '555-404-5050', 'Pediatrician'),
-('dr.brown@example.com', 'Dr. Alice Brown', 'brownie123', '555-505-6060', 'Dermatologist'),
-('dr.taylor@example.com', 'Dr. Taylor Grant', 'taylor321', '555-606-7070', 'Cardiologist'),
-('dr.white@example.com', 'Dr. Sam White', 'whiteSecure1', '555-707-8080', 'Neurologist'),
-('dr.clark@example.com', 'Dr. Emma Clark', 'clarkPass456', '555-808-9090', 'Orthopedist'),
-('dr.davis@example.com', 'Dr. Olivia Davis', 'davis789', '555-909-0101', 'Pediatrician'),
-('dr.miller@example.com', 'Dr. Henry Miller', 'millertime!', '555-010-1111', 'Dermatologist'),
-('dr.moore@example.com', 'Dr. Ella Moore', 'ellapass33', '555-111-2222', 'Cardiologist'),
-('dr.martin@example.com', 'Dr. Leo Martin', 'martinpass', '555-222-3333', 'Neurologist'),
-('dr.jackson@example.com', 'Dr. Ivy Jackson', 'jackson11', '555-333-4444', 'Orthopedist'),
-('dr.thomas@example.com', 'Dr. Owen Thomas', 'thomasPWD', '555-444-5555', 'Pediatrician'),
-('dr.hall@example.com', 'Dr. Ava Hall', 'hallhall', '555-555-6666', 'Dermatologist'),
-('dr.green@example.com', 'Dr. Mia Green', 'greenleaf', '555-666-7777', 'Cardiologist'),
-('dr.baker@example.com', 'Dr. Jack Baker', 'bakeitup', '555-777-8888', 'Neurologist'),
-('dr.walker@example.com', 'Dr. Nora Walker', 'walkpass12', '555-888-9999', 'Orthopedist'),
-('dr.young@example.com', 'Dr. Liam Young', 'young123', '555-999-0000', 'Pediatrician'),
-('dr.king@example.com', 'Dr. Zoe King', 'kingkong1', '555-000-1111', 'Dermatologist'),
-('dr.scott@example.com', 'Dr. Lily Scott', 'scottish', '555-111-2223', 'Cardiologist'),
-('dr.evans@example.com', 'Dr. Lucas Evans', 'evansEv1', '555-222-3334', 'Neurologist'),
-('dr.turner@example.com', 'Dr. Grace Turner', 'turnerBurner', '555-333-4445', 'Orthopedist'),
-('dr.hill@example.com', 'Dr. Ethan Hill', 'hillclimb', '555-444-5556', 'Pediatrician'),
-('dr.ward@example.com', 'Dr. Ruby Ward', 'wardWard', '555-555-6667', 'Dermatologist');
+INSERT INTO specialty (name) VALUES
+('Cardiologist'),
+('Dermatologist'),
+('Neurologist'),
+('Orthopedist'),
+('Pediatrician');
+INSERT INTO doctor (email, name, password, phone, specialty_id) VALUES
+('dr.adams@example.com', 'Dr. Emily Adams', 'pass12345', '555-101-2020', (SELECT id FROM specialty WHERE name = 'Cardiologist')),
+('dr.johnson@example.com', 'Dr. Mark Johnson', 'secure4567', '555-202-3030', (SELECT id FROM specialty WHERE name = 'Neurologist')),
+('dr.lee@example.com', 'Dr. Sarah Lee', 'leePass987', '555-303-4040', (SELECT id FROM specialty WHERE name = 'Orthopedist')),
+('dr.wilson@example.com', 'Dr. Tom Wilson', 'w!ls0nPwd', '555-404-5050', (SELECT id FROM specialty WHERE name = 'Pediatrician')),
+('dr.brown@example.com', 'Dr. Alice Brown', 'brownie123', '555-505-6060', (SELECT id FROM specialty WHERE name = 'Dermatologist')),
+('dr.taylor@example.com', 'Dr. Taylor Grant', 'taylor321', '555-606-7070', (SELECT id FROM specialty WHERE name = 'Cardiologist')),
+('dr.white@example.com', 'Dr. Sam White', 'whiteSecure1', '555-707-8080', (SELECT id FROM specialty WHERE name = 'Neurologist')),
+('dr.clark@example.com', 'Dr. Emma Clark', 'clarkPass456', '555-808-9090', (SELECT id FROM specialty WHERE name = 'Orthopedist')),
+('dr.davis@example.com', 'Dr. Olivia Davis', 'davis789', '555-909-0101', (SELECT id FROM specialty WHERE name = 'Pediatrician')),
+('dr.miller@example.com', 'Dr. Henry Miller', 'millertime!', '555-010-1111', (SELECT id FROM specialty WHERE name = 'Dermatologist')),
+('dr.moore@example.com', 'Dr. Ella Moore', 'ellapass33', '555-111-2222', (SELECT id FROM specialty WHERE name = 'Cardiologist')),
+('dr.martin@example.com', 'Dr. Leo Martin', 'martinpass', '555-222-3333', (SELECT id FROM specialty WHERE name = 'Neurologist')),
+('dr.jackson@example.com', 'Dr. Ivy Jackson', 'jackson11', '555-333-4444', (SELECT id FROM specialty WHERE name = 'Orthopedist')),
+('dr.thomas@example.com', 'Dr. Owen Thomas', 'thomasPWD', '555-444-5555', (SELECT id FROM specialty WHERE name = 'Pediatrician')),
+('dr.hall@example.com', 'Dr. Ava Hall', 'hallhall', '555-555-6666', (SELECT id FROM specialty WHERE name = 'Dermatologist')),
+('dr.green@example.com', 'Dr. Mia Green', 'greenleaf', '555-666-7777', (SELECT id FROM specialty WHERE name = 'Cardiologist')),
+('dr.baker@example.com', 'Dr. Jack Baker', 'bakeitup', '555-777-8888', (SELECT id FROM specialty WHERE name = 'Neurologist')),
+('dr.walker@example.com', 'Dr. Nora Walker', 'walkpass12', '555-888-9999', (SELECT id FROM specialty WHERE name = 'Orthopedist')),
+('dr.young@example.com', 'Dr. Liam Young', 'young123', '555-999-0000', (SELECT id FROM specialty WHERE name = 'Pediatrician')),
+('dr.king@example.com', 'Dr. Zoe King', 'kingkong1', '555-000-1111', (SELECT id FROM specialty WHERE name = 'Dermatologist')),
+('dr.scott@example.com', 'Dr. Lily Scott', 'scottish', '555-111-2223', (SELECT id FROM specialty WHERE name = 'Cardiologist')),
+('dr.evans@example.com', 'Dr. Lucas Evans', 'evansEv1', '555-222-3334', (SELECT id FROM specialty WHERE name = 'Neurologist')),
+('dr.turner@example.com', 'Dr. Grace Turner', 'turnerBurner', '555-333-4445', (SELECT id FROM specialty WHERE name = 'Orthopedist')),
+('dr.hill@example.com', 'Dr. Ethan Hill', 'hillclimb', '555-444-5556', (SELECT id FROM specialty WHERE name = 'Pediatrician')),
+('dr.ward@example.com', 'Dr. Ruby Ward', 'wardWard', '555-555-6667', (SELECT id FROM specialty WHERE name = 'Dermatologist'));
 INSERT INTO doctor_available_times (doctor_id, available_times) VALUES
 (1, '09:00-10:00'), (1, '10:00-11:00'), (1, '11:00-12:00'), (1, '14:00-15:00'),
 (2, '10:00-11:00'), (2, '11:00-12:00'), (2, '14:00-15:00'), (2, '15:00-16:00'),
@@ -0,0 +1,13 @@
+-- Booked slots per doctor and day, one bit per 30-minute slot
+-- (bit 0 = 00:00, bit 18 = 09:00). Maintained by the application in the
+-- same transaction as every booking, reschedule and cancellation.
+-- After creating the table, start the application (or call
+-- POST /admin/slot-calendar/rebuild/{token}) to fill it from the
+-- appointment table.
+
+CREATE TABLE IF NOT EXISTS slot_calendar (
+    doctor_id   BIGINT NOT NULL,
+    slot_date   DATE   NOT NULL,
+    booked_mask BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (doctor_id, slot_date)
+);
@@ -0,0 +1,33 @@
+-- Moves doctor specialties from free text into the specialty lookup table.
+-- Existing values are trimmed and title-cased ('cardiologist ' -> 'Cardiologist')
+-- so that spellings differing only in case or spacing share one row.
+-- Run once against an existing database before starting this version.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS specialty (
+    id   SERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_specialty_name_lower ON specialty (LOWER(name));
+
+INSERT INTO specialty (name)
+SELECT DISTINCT INITCAP(LOWER(REGEXP_REPLACE(TRIM(specialty), '\s+', ' ', 'g')))
+FROM doctor
+WHERE specialty IS NOT NULL AND TRIM(specialty) <> ''
+ON CONFLICT DO NOTHING;
+
+ALTER TABLE doctor ADD COLUMN IF NOT EXISTS specialty_id INTEGER REFERENCES specialty (id);
+
+UPDATE doctor d
+SET specialty_id = s.id
+FROM specialty s
+WHERE LOWER(s.name) = LOWER(REGEXP_REPLACE(TRIM(d.specialty), '\s+', ' ', 'g'))
+  AND d.specialty_id IS NULL;
+
+CREATE INDEX IF NOT EXISTS ix_doctor_specialty_id ON doctor (specialty_id);
+
+ALTER TABLE doctor DROP COLUMN specialty;
+
+COMMIT;
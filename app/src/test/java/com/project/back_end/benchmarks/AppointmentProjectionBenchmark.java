@@ -0,0 +1,161 @@
+package com.project.back_end.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Specialty;
+import com.project.back_end.repo.AppointmentRepository;
+
+/**
+ * JMH benchmark of the upcoming-appointments read for a doctor with 200
+ * appointments across 50 patients, on H2 with the production mappings.
+ *
+ * {@code entityGraph} is the previous query: fetch-join the Appointment,
+ * Doctor and Patient entities into a session, then copy ten fields into
+ * AppointmentDTO. {@code constructorProjection} selects the same ten
+ * columns straight into the DTO with {@link AppointmentRepository#DTO_SELECT}.
+ * Each invocation opens a session like one request does. Reported as
+ * requests per second; rows per second is that times 200. The GC
+ * profiler's {@code gc.alloc.rate.norm} is bytes allocated per request.
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/test-classes:target/classes:<deps> com.project.back_end.benchmarks.AppointmentProjectionBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AppointmentProjectionBenchmark {
+
+    private static final int PATIENTS = 50;
+    private static final int APPOINTMENTS = 200;
+
+    private static final String ENTITY_QUERY = "SELECT a FROM Appointment a "
+            + "JOIN FETCH a.doctor d JOIN FETCH a.patient p "
+            + "WHERE d.id = :doctorId AND a.appointmentTime >= :now ORDER BY a.appointmentTime ASC";
+    private static final String PROJECTION_QUERY = AppointmentRepository.DTO_SELECT
+            + "WHERE d.id = :doctorId AND a.appointmentTime >= :now ORDER BY a.appointmentTime ASC";
+
+    private SessionFactory sessionFactory;
+    private Long doctorId;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Specialty.class)
+                .addAnnotatedClass(Doctor.class)
+                .addAnnotatedClass(Patient.class)
+                .addAnnotatedClass(Appointment.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:projection-benchmark;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.PHYSICAL_NAMING_STRATEGY,
+                        CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .buildSessionFactory();
+
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        sessionFactory.inTransaction(session -> {
+            Specialty specialty = new Specialty("Cardiology");
+            session.persist(specialty);
+
+            Doctor doctor = new Doctor();
+            doctor.setName("Doctor Benchmark");
+            doctor.setSpecialtyRef(specialty);
+            doctor.setEmail("benchmark@clinic.com");
+            doctor.setPassword("secret123");
+            doctor.setPhone("555-000-0001");
+            doctor.setAvailability(List.of("09:00-10:00", "10:00-11:00"));
+            session.persist(doctor);
+            doctorId = doctor.getId();
+
+            List<Patient> patients = new ArrayList<>(PATIENTS);
+            for (int p = 0; p < PATIENTS; p++) {
+                Patient patient = new Patient(null, "Patient " + p, "patient" + p + "@mail.com",
+                        "$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ", "555-111-0000",
+                        p + " Main St, Springfield");
+                session.persist(patient);
+                patients.add(patient);
+            }
+            for (int a = 0; a < APPOINTMENTS; a++) {
+                LocalDateTime time = firstDay.plusDays(a / 8).atTime(9, 0).plusMinutes(30L * (a % 8));
+                session.persist(new Appointment(null, doctor, patients.get(a % PATIENTS), time, 0));
+            }
+        });
+        now = LocalDateTime.now();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> entityGraph() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery(ENTITY_QUERY, Appointment.class)
+                    .setParameter("doctorId", doctorId)
+                    .setParameter("now", now)
+                    .getResultList()
+                    .stream()
+                    .map(app -> new AppointmentDTO(
+                            app.getId(),
+                            app.getDoctor().getId(),
+                            app.getDoctor().getName(),
+                            app.getPatient().getId(),
+                            app.getPatient().getName(),
+                            app.getPatient().getEmail(),
+                            app.getPatient().getPhone(),
+                            app.getPatient().getAddress(),
+                            app.getApptTime(),
+                            app.getStatus()))
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> constructorProjection() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery(PROJECTION_QUERY, AppointmentDTO.class)
+                    .setParameter("doctorId", doctorId)
+                    .setParameter("now", now)
+                    .getResultList();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AppointmentProjectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
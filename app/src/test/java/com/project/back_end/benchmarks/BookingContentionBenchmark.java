@@ -0,0 +1,153 @@
+package com.project.back_end.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.project.back_end.services.ReservationLedger;
+
+/**
+ * JMH benchmark of many patients racing for a doctor's few hot slots.
+ *
+ * Sixteen threads book into the same eight slots of a day, moving on to
+ * the next day every 256 attempts, so nearly every attempt is a loser.
+ * {@code databaseOnly} sends every attempt to an H2 table guarded by the
+ * same unique constraint as production; {@code ledgerFirst} claims the
+ * slot in the {@link ReservationLedger} and only inserts for the winner;
+ * {@code ledgerOnly} is the in-memory claim alone. Reported as attempts
+ * per millisecond across all threads.
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/test-classes:target/classes:<deps> com.project.back_end.benchmarks.BookingContentionBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(16)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookingContentionBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:booking-benchmark;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+    private static final Long DOCTOR_ID = 1L;
+    private static final int HOT_SLOTS = 8;
+    private static final int ATTEMPTS_PER_DAY = 256;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    private final AtomicLong attempts = new AtomicLong();
+    private Connection schema;
+    private ReservationLedger ledger;
+
+    @Setup
+    public void setUp() throws SQLException {
+        schema = DriverManager.getConnection(URL);
+        try (Statement statement = schema.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS appointment");
+            statement.execute("CREATE TABLE appointment ("
+                    + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "doctor_id BIGINT NOT NULL, "
+                    + "patient_id BIGINT NOT NULL, "
+                    + "appointment_time TIMESTAMP NOT NULL, "
+                    + "status INT NOT NULL, "
+                    + "CONSTRAINT uk_appointment_doctor_time UNIQUE (doctor_id, appointment_time))");
+        }
+        attempts.set(0);
+        ledger = new ReservationLedger(30);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        schema.close();
+    }
+
+    /** One connection per booking thread, like a pooled request thread. */
+    @State(Scope.Thread)
+    public static class Session {
+        private Connection connection;
+        private PreparedStatement insert;
+
+        @Setup
+        public void open(BookingContentionBenchmark benchmark) throws SQLException {
+            connection = DriverManager.getConnection(URL);
+            insert = connection.prepareStatement("INSERT INTO appointment "
+                    + "(doctor_id, patient_id, appointment_time, status) VALUES (?, ?, ?, 0)");
+        }
+
+        @TearDown
+        public void close() throws SQLException {
+            connection.close();
+        }
+
+        boolean book(LocalDateTime slot) {
+            try {
+                insert.setLong(1, DOCTOR_ID);
+                insert.setLong(2, Thread.currentThread().getId());
+                insert.setTimestamp(3, Timestamp.valueOf(slot));
+                insert.executeUpdate();
+                return true;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                return false;
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean databaseOnly(Session session) {
+        return session.book(nextSlot());
+    }
+
+    @Benchmark
+    public boolean ledgerFirst(Session session) {
+        LocalDateTime slot = nextSlot();
+        ReservationLedger.Claim claim = ledger.tryReserve(DOCTOR_ID, slot);
+        if (claim == null) return false;
+        if (session.book(slot)) return true;
+
+        claim.release();
+        return false;
+    }
+
+    @Benchmark
+    public boolean ledgerOnly() {
+        return ledger.tryReserve(DOCTOR_ID, nextSlot()) != null;
+    }
+
+    private LocalDateTime nextSlot() {
+        long attempt = attempts.getAndIncrement();
+        int slot = ThreadLocalRandom.current().nextInt(HOT_SLOTS);
+        return FIRST_DAY.plusDays(attempt / ATTEMPTS_PER_DAY).atTime(9, 0).plusMinutes(30L * slot);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookingContentionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
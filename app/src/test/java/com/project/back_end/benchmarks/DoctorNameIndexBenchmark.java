@@ -0,0 +1,112 @@
+package com.project.back_end.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.project.back_end.DTO.DoctorView;
+import com.project.back_end.DTO.Suggestion;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.services.DoctorNameIndex;
+import com.project.back_end.services.SuggestionIndex;
+
+/**
+ * JMH benchmark of doctor name search over 100k doctors.
+ *
+ * Compares the trigram index against the linear lower-case contains scan
+ * it replaced, for a selective query, a common fragment and a two-letter
+ * query that falls back to scanning. Also reports the index build time,
+ * paid once per catalog version, and top-10 autocomplete lookups.
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/test-classes:target/classes:<deps> com.project.back_end.benchmarks.DoctorNameIndexBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DoctorNameIndexBenchmark {
+
+    private static final String[] FIRST = { "Emily", "James", "Olivia", "Liam", "Sophia", "Noah",
+            "Ava", "Lucas", "Mia", "Ethan", "Amelia", "Mason", "Harper", "Logan", "Evelyn", "Aiden" };
+    private static final String[] LAST = { "Adams", "Brown", "Clark", "Davis", "Evans", "Garcia",
+            "Harris", "Johnson", "King", "Lopez", "Martin", "Nguyen", "Patel", "Robinson", "Smith",
+            "Thompson", "Walker", "Young" };
+
+    @Param({"100000"})
+    private int doctorCount;
+
+    @Param({"thompson", "son", "li"})
+    private String query;
+
+    private List<DoctorView> doctors;
+    private DoctorNameIndex index;
+    private SuggestionIndex suggestions;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        doctors = new ArrayList<>(doctorCount);
+        for (int i = 0; i < doctorCount; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setId((long) i + 1);
+            doctor.setName("Dr. " + FIRST[random.nextInt(FIRST.length)] + " "
+                    + LAST[random.nextInt(LAST.length)] + "-" + Integer.toString(i, 36));
+            doctor.setSpecialty("Cardiology");
+            doctors.add(new DoctorView(doctor));
+        }
+        index = new DoctorNameIndex(doctors);
+        suggestions = SuggestionIndex.build(doctors);
+    }
+
+    @Benchmark
+    public List<DoctorView> indexSearch() {
+        return index.search(query);
+    }
+
+    @Benchmark
+    public List<Suggestion> suggest() {
+        return suggestions.suggest(query, 10);
+    }
+
+    @Benchmark
+    public List<DoctorView> linearScan() {
+        String q = query.toLowerCase(Locale.ROOT);
+        List<DoctorView> result = new ArrayList<>();
+        for (DoctorView doctor : doctors) {
+            if (doctor.getName().toLowerCase().contains(q)) result.add(doctor);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DoctorNameIndex build() {
+        return new DoctorNameIndex(doctors);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DoctorNameIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
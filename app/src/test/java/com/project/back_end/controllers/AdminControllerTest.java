@@ -6,6 +6,10 @@ import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -21,6 +25,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
 import com.project.back_end.models.Admin;
 
 /**
@@ -104,6 +109,26 @@ class AdminControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.error").value("Invalid credentials"));
     }
 
+    /**
+     * Tests admin login when the attempt limit is exceeded.
+     * 
+     * Verifies throttled attempts return 429 Too Many Requests and never
+     * reach credential validation.
+     */
+    @Test
+    void adminLogin_Throttled_ReturnsTooManyRequests() throws Exception {
+        when(loginThrottle.rejectAttempt(eq("admin"), eq("admin"), anyString()))
+            .thenReturn(true);
+
+        mockMvc.perform(post("/admin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testAdmin)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error").exists());
+
+        verify(service, never()).validateAdmin(any(Admin.class));
+    }
+
     /**
      * Tests admin dashboard access with valid token.
      * 
@@ -151,4 +176,25 @@ class AdminControllerTest extends BaseControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("redirect:/"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the slot calendar rebuild endpoint.
+     * 
+     * Verifies an admin token triggers the rebuild and reports the number
+     * of repaired days, while an invalid token never reaches it.
+     */
+    @Test
+    void rebuildSlotCalendar_AdminToken_ReportsRepairedDays() throws Exception {
+        when(tokenService.resolvePrincipal("admin-token"))
+            .thenReturn(new AuthenticatedPrincipal("admin", "admin", 1L));
+        when(slotCalendar.rebuild()).thenReturn(4);
+
+        mockMvc.perform(post("/admin/slot-calendar/rebuild/admin-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.repaired").value(4));
+
+        mockMvc.perform(post("/admin/slot-calendar/rebuild/bad-token"))
+                .andExpect(status().isUnauthorized());
+        verify(slotCalendar).rebuild();
+    }
+}
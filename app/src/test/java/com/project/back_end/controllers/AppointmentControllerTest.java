@@ -8,8 +8,12 @@ import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -22,11 +26,15 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.back_end.DTO.AppointmentSeries;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import com.project.back_end.DTO.SlotHold;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
@@ -53,8 +61,6 @@ class AppointmentControllerTest extends BaseControllerTest {
 
 
     private Appointment testAppointment;
-    private Map<String, String> validTokenResponse;
-    private Map<String, String> invalidTokenResponse;
     private Map<String, Object> appointmentResponse;
 
     /**
@@ -85,14 +91,13 @@ class AppointmentControllerTest extends BaseControllerTest {
         testAppointment.setApptTime(LocalDateTime.now().plusDays(1));
         testAppointment.setStatus(0);
 
-        validTokenResponse = new HashMap<>();
-        validTokenResponse.put("valid", "true");
-
-        invalidTokenResponse = new HashMap<>();
-        invalidTokenResponse.put("error", "Invalid or expired token");
-
         appointmentResponse = new HashMap<>();
         appointmentResponse.put("appointments", new Object[]{});
+
+        when(tokenService.resolvePrincipal("valid-token"))
+            .thenReturn(new AuthenticatedPrincipal("doctor", "smith@hospital.com", 1L));
+        when(tokenService.resolvePrincipal("patient-token"))
+            .thenReturn(new AuthenticatedPrincipal("patient", "john@example.com", 1L));
     }
 
     /**
@@ -103,10 +108,8 @@ class AppointmentControllerTest extends BaseControllerTest {
      */
     @Test
     void getAppointments_ValidToken_ReturnsAppointments() throws Exception {
-        when(service.validateToken("valid-token", "doctor"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(appointmentService.getAppointment(anyString(), any(LocalDate.class), 
-                anyString()))
+                anyLong()))
             .thenReturn(appointmentResponse);
 
         mockMvc.perform(get("/appointments/2024-01-15/null/valid-token"))
@@ -122,10 +125,6 @@ class AppointmentControllerTest extends BaseControllerTest {
      */
     @Test
     void getAppointments_InvalidToken_ReturnsUnauthorized() throws Exception {
-        when(service.validateToken("invalid-token", "doctor"))
-            .thenReturn(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(invalidTokenResponse));
-
         mockMvc.perform(get("/appointments/2024-01-15/null/invalid-token"))
             .andExpect(status().isUnauthorized())
             .andExpect(jsonPath("$.error")
@@ -140,10 +139,8 @@ class AppointmentControllerTest extends BaseControllerTest {
      */
     @Test
     void getAppointments_WithPatientFilter_ReturnsFilteredResults() throws Exception {
-        when(service.validateToken("valid-token", "doctor"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(appointmentService.getAppointment(eq("John"), any(LocalDate.class), 
-                eq("valid-token")))
+                eq(1L)))
             .thenReturn(appointmentResponse);
 
         mockMvc.perform(get("/appointments/2024-01-15/John/valid-token"))
@@ -160,9 +157,7 @@ class AppointmentControllerTest extends BaseControllerTest {
     @Test
     void getUpcomingAppointments_NoFilter_ReturnsAllUpcoming() 
             throws Exception {
-        when(service.validateToken("valid-token", "doctor"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
-        when(appointmentService.getUpcomingAppointments("null", "valid-token"))
+        when(appointmentService.getUpcomingAppointments("null", 1L))
             .thenReturn(appointmentResponse);
 
         mockMvc.perform(get("/appointments/upcoming/valid-token"))
@@ -178,9 +173,7 @@ class AppointmentControllerTest extends BaseControllerTest {
      */
     @Test
     void getUpcomingAppointments_WithFilter_ReturnsFiltered() throws Exception {
-        when(service.validateToken("valid-token", "doctor"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
-        when(appointmentService.getUpcomingAppointments("John", "valid-token"))
+        when(appointmentService.getUpcomingAppointments("John", 1L))
             .thenReturn(appointmentResponse);
 
         mockMvc.perform(get("/appointments/upcoming/John/valid-token"))
@@ -196,15 +189,11 @@ class AppointmentControllerTest extends BaseControllerTest {
      */
     @Test
     void bookAppointment_ValidData_ReturnsCreated() throws Exception {
-        Map<String, String> tokenBody = Map.of("valid", "true");
-        when(service.validateToken("valid-token", "patient"))
-            .thenReturn(ResponseEntity.ok(tokenBody));
-        when(service.validateAppointment(any(Appointment.class)))
-            .thenReturn(1);
-        when(appointmentService.bookAppointment(any(Appointment.class)))
-            .thenReturn(1);
-
-        mockMvc.perform(post("/appointments/valid-token")
+        when(appointmentService.bookAppointment(any(Appointment.class), eq(1L)))
+            .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                .body(Map.of("message", "Appointment Booked Successfully")));
+
+        mockMvc.perform(post("/appointments/patient-token")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(testAppointment)))
             .andExpect(status().isCreated())
@@ -220,13 +209,11 @@ class AppointmentControllerTest extends BaseControllerTest {
      */
     @Test
     void bookAppointment_InvalidDoctor_ReturnsBadRequest() throws Exception {
-        Map<String, String> tokenBody = Map.of("valid", "true");
-        when(service.validateToken("valid-token", "patient"))
-            .thenReturn(ResponseEntity.ok(tokenBody));
-        when(service.validateAppointment(any(Appointment.class)))
-            .thenReturn(-1);
+        when(appointmentService.bookAppointment(any(Appointment.class), eq(1L)))
+            .thenReturn(ResponseEntity.badRequest()
+                .body(Map.of("message", "Invalid doctor id")));
 
-        mockMvc.perform(post("/appointments/valid-token")
+        mockMvc.perform(post("/appointments/patient-token")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(testAppointment)))
             .andExpect(status().isBadRequest())
@@ -234,26 +221,122 @@ class AppointmentControllerTest extends BaseControllerTest {
     }
 
     /**
-     * Tests appointment booking when time slot is unavailable.
+     * Tests appointment booking when time slot is already taken.
      * 
-     * Verifies conflict detection when appointment slot is already
-     * booked or doctor is unavailable.
+     * Verifies the conflict reported by the booking transaction is
+     * returned to the client as 409.
      */
     @Test
-    void bookAppointment_TimeConflict_ReturnsBadRequest() throws Exception {
-        Map<String, String> tokenBody = Map.of("valid", "true");
-        when(service.validateToken("valid-token", "patient"))
-            .thenReturn(ResponseEntity.ok(tokenBody));
-        when(service.validateAppointment(any(Appointment.class)))
-            .thenReturn(0);
-
-        mockMvc.perform(post("/appointments/valid-token")
+    void bookAppointment_TimeConflict_ReturnsConflict() throws Exception {
+        when(appointmentService.bookAppointment(any(Appointment.class), eq(1L)))
+            .thenReturn(ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", "Appointment already booked for given time")));
+
+        mockMvc.perform(post("/appointments/patient-token")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(testAppointment)))
-            .andExpect(status().isBadRequest())
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message")
+                .value("Appointment already booked for given time"));
+    }
+
+    /**
+     * Tests a booking retried with the same Idempotency-Key.
+     * 
+     * Verifies the retry gets the first response back, marked as a
+     * replay, and the booking runs only once.
+     */
+    @Test
+    void bookAppointment_RetriedWithSameIdempotencyKey_BooksOnce() throws Exception {
+        when(appointmentService.bookAppointment(any(Appointment.class), eq(1L)))
+            .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                .body(Map.of("message", "Appointment Booked Successfully")));
+
+        mockMvc.perform(post("/appointments/patient-token")
+                .header("Idempotency-Key", "book-retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testAppointment)))
+            .andExpect(status().isCreated());
+        mockMvc.perform(post("/appointments/patient-token")
+                .header("Idempotency-Key", "book-retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testAppointment)))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andExpect(jsonPath("$.message").value("Appointment Booked Successfully"));
+
+        verify(appointmentService, times(1)).bookAppointment(any(Appointment.class), eq(1L));
+    }
+
+    /**
+     * Tests an Idempotency-Key reused for a different booking.
+     * 
+     * Verifies the second request is refused with 422 instead of getting
+     * the first booking's response, and only the first booking runs.
+     */
+    @Test
+    void bookAppointment_SameIdempotencyKeyDifferentBody_ReturnsUnprocessableEntity() throws Exception {
+        when(appointmentService.bookAppointment(any(Appointment.class), eq(1L)))
+            .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                .body(Map.of("message", "Appointment Booked Successfully")));
+
+        mockMvc.perform(post("/appointments/patient-token")
+                .header("Idempotency-Key", "book-reused-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testAppointment)))
+            .andExpect(status().isCreated());
+
+        testAppointment.setApptTime(testAppointment.getApptTime().plusHours(1));
+        mockMvc.perform(post("/appointments/patient-token")
+                .header("Idempotency-Key", "book-reused-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testAppointment)))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        verify(appointmentService, times(1)).bookAppointment(any(Appointment.class), eq(1L));
+    }
+
+    /**
+     * Tests booking a weekly series for the patient behind the token.
+     * 
+     * Verifies the series is passed to the service with the principal's
+     * ID and its 201 response is returned unchanged.
+     */
+    @Test
+    void bookAppointmentSeries_ValidData_ReturnsCreated() throws Exception {
+        when(appointmentService.bookSeries(any(AppointmentSeries.class), eq(1L)))
+            .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                .body(Map.of("message", "Appointment Series Booked Successfully")));
+
+        AppointmentSeries series = new AppointmentSeries(1L, LocalDateTime.now().plusDays(1), 6, 1);
+        mockMvc.perform(post("/appointments/series/patient-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(series)))
+            .andExpect(status().isCreated())
             .andExpect(jsonPath("$.message")
-                .value("Appointment already booked for given time or " +
-                       "Doctor not available"));
+                .value("Appointment Series Booked Successfully"));
+    }
+
+    /**
+     * Tests holding a slot for the patient behind the token.
+     * 
+     * Verifies the hold is placed for the principal's ID and the hold
+     * duration is returned with 201.
+     */
+    @Test
+    void holdSlot_ValidData_ReturnsCreated() throws Exception {
+        LocalDateTime time = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        when(appointmentService.holdSlot(1L, time, 1L))
+            .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                .body(Map.of("message", "Slot held", "expiresInSeconds", 120L)));
+
+        mockMvc.perform(post("/appointments/holds/patient-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SlotHold(1L, time))))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.message").value("Slot held"))
+            .andExpect(jsonPath("$.expiresInSeconds").value(120));
     }
 
     /**
@@ -264,18 +347,15 @@ class AppointmentControllerTest extends BaseControllerTest {
      */
     @Test
     void updateAppointment_ValidData_ReturnsOk() throws Exception {
-        Map<String, String> tokenBody = Map.of("valid", "true");
         Map<String, String> updateResponse = Map.of(
             "message", 
             "Appointment Updated Successfully"
         );
         
-        when(service.validateToken("valid-token", "patient"))
-            .thenReturn(ResponseEntity.ok(tokenBody));
-        when(appointmentService.updateAppointment(any(Appointment.class)))
+        when(appointmentService.updateAppointment(any(Appointment.class), eq(1L)))
             .thenReturn(ResponseEntity.ok(updateResponse));
 
-        mockMvc.perform(put("/appointments/valid-token")
+        mockMvc.perform(put("/appointments/patient-token")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(testAppointment)))
             .andExpect(status().isOk())
@@ -291,18 +371,15 @@ class AppointmentControllerTest extends BaseControllerTest {
      */
     @Test
     void cancelAppointment_ValidToken_ReturnsOk() throws Exception {
-        Map<String, String> tokenBody = Map.of("valid", "true");
         Map<String, String> cancelResponse = Map.of(
             "message", 
             "Appointment Deleted Successfully"
         );
         
-        when(service.validateToken("valid-token", "patient"))
-            .thenReturn(ResponseEntity.ok(tokenBody));
-        when(appointmentService.cancelAppointment(1L, "valid-token"))
+        when(appointmentService.cancelAppointment(1L, 1L))
             .thenReturn(ResponseEntity.ok(cancelResponse));
 
-        mockMvc.perform(delete("/appointments/1/valid-token"))
+        mockMvc.perform(delete("/appointments/1/patient-token"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.message")
                 .value("Appointment Deleted Successfully"));
@@ -316,21 +393,78 @@ class AppointmentControllerTest extends BaseControllerTest {
      */
     @Test
     void cancelAppointment_NotFound_ReturnsNotFound() throws Exception {
-        Map<String, String> tokenBody = Map.of("valid", "true");
         Map<String, String> notFoundResponse = Map.of(
             "message", 
             "No appointment for given id: 999"
         );
         
-        when(service.validateToken("valid-token", "patient"))
-            .thenReturn(ResponseEntity.ok(tokenBody));
-        when(appointmentService.cancelAppointment(999L, "valid-token"))
+        when(appointmentService.cancelAppointment(999L, 1L))
             .thenReturn(ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(notFoundResponse));
 
-        mockMvc.perform(delete("/appointments/999/valid-token"))
+        mockMvc.perform(delete("/appointments/999/patient-token"))
             .andExpect(status().isNotFound())
             .andExpect(jsonPath("$.message")
                 .value("No appointment for given id: 999"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests appointment cancellation with a doctor's token.
+     * 
+     * Verifies a token of another role is rejected with 401 even when
+     * its principal ID matches the patient, and nothing is cancelled.
+     */
+    @Test
+    void cancelAppointment_DoctorToken_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(delete("/appointments/1/valid-token"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.error").value("Invalid or expired token"));
+
+        verify(appointmentService, never()).cancelAppointment(anyLong(), any());
+    }
+
+    /**
+     * Tests appointment cancellation with an invalid token.
+     * 
+     * Verifies a token that resolves to no principal is answered with
+     * 401 instead of failing in the handler.
+     */
+    @Test
+    void cancelAppointment_InvalidToken_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(delete("/appointments/1/invalid-token"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.error").value("Invalid or expired token"));
+
+        verify(appointmentService, never()).cancelAppointment(anyLong(), any());
+    }
+
+    /**
+     * Tests appointment update with a doctor's token.
+     * 
+     * Verifies the update is rejected with 401 and never reaches the
+     * service.
+     */
+    @Test
+    void updateAppointment_DoctorToken_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(put("/appointments/valid-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testAppointment)))
+            .andExpect(status().isUnauthorized());
+
+        verify(appointmentService, never()).updateAppointment(any(Appointment.class), anyLong());
+    }
+
+    /**
+     * Tests upcoming appointments with a patient's token.
+     * 
+     * Verifies a patient cannot read a doctor's schedule by presenting
+     * a patient token with the same ID.
+     */
+    @Test
+    void getUpcomingAppointments_PatientToken_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(get("/appointments/upcoming/patient-token"))
+            .andExpect(status().isUnauthorized());
+
+        verify(appointmentService, never()).getUpcomingAppointments(anyString(), anyLong());
+    }
+}
@@ -1,6 +1,7 @@
 package com.project.back_end.controllers;
 
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.TestPropertySource;
 
 import com.project.back_end.repo.AdminRepository;
@@ -9,18 +10,24 @@ import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
 import com.project.back_end.repo.PrescriptionRepository;
 import com.project.back_end.repo.ReportRepository;
+import com.project.back_end.repo.SlotCalendarRepository;
+import com.project.back_end.repo.SpecialtyRepository;
 import com.project.back_end.services.AppointmentService;
 import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.IdempotencyStore;
+import com.project.back_end.services.LoginThrottle;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.PrescriptionService;
 import com.project.back_end.services.ReportService;
 import com.project.back_end.services.Service;
+import com.project.back_end.services.SlotCalendar;
 import com.project.back_end.services.TokenService;
 
 @TestPropertySource(properties = {
     "api.path=/",
     "spring.jpa.hibernate.ddl-auto=none"
 })
+@Import(IdempotencyStore.class)
 @SuppressWarnings("removal")
 public abstract class BaseControllerTest {
     
@@ -62,4 +69,16 @@ public abstract class BaseControllerTest {
     
     @MockBean
     protected ReportRepository reportRepository;
+
+    @MockBean
+    protected SpecialtyRepository specialtyRepository;
+
+    @MockBean
+    protected LoginThrottle loginThrottle;
+
+    @MockBean
+    protected SlotCalendar slotCalendar;
+
+    @MockBean
+    protected SlotCalendarRepository slotCalendarRepository;
 }
\ No newline at end of file
@@ -9,6 +9,12 @@ import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -22,12 +28,17 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+import com.project.back_end.DTO.DoctorQuery;
 import com.project.back_end.DTO.DoctorUpdateDTO;
+import com.project.back_end.DTO.DoctorView;
 import com.project.back_end.DTO.Login;
+import com.project.back_end.DTO.Suggestion;
 import com.project.back_end.models.Doctor;
 
 /**
@@ -58,8 +69,6 @@ class DoctorControllerTest extends BaseControllerTest {
     private Doctor testDoctor;
     private DoctorUpdateDTO updateDTO;
     private Login loginRequest;
-    private Map<String, String> validTokenResponse;
-    private Map<String, String> invalidTokenResponse;
 
     /**
      * Initializes test data before each test execution.
@@ -91,11 +100,12 @@ class DoctorControllerTest extends BaseControllerTest {
         loginRequest.setEmail("smith@hospital.com");
         loginRequest.setPassword("secure123");
 
-        validTokenResponse = new HashMap<>();
-        validTokenResponse.put("valid", "true");
-
-        invalidTokenResponse = new HashMap<>();
-        invalidTokenResponse.put("error", "Invalid or expired token");
+        when(tokenService.resolvePrincipal("admin-token"))
+            .thenReturn(new AuthenticatedPrincipal("admin", "admin", 1L));
+        when(tokenService.resolvePrincipal("valid-token"))
+            .thenReturn(new AuthenticatedPrincipal("patient", "john@example.com", 1L));
+        when(tokenService.resolvePrincipal("patient-token"))
+            .thenReturn(new AuthenticatedPrincipal("patient", "john@example.com", 1L));
     }
 
     /**
@@ -106,8 +116,6 @@ class DoctorControllerTest extends BaseControllerTest {
      */
     @Test
     void getDoctorAvailability_ValidToken_ReturnsAvailability() throws Exception {
-        when(service.validateToken("valid-token", "patient"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(doctorService.getDoctorAvailability(1L, LocalDate.parse("2024-01-15")))
             .thenReturn(Arrays.asList("09:00-10:00", "14:00-15:00"));
 
@@ -126,15 +134,65 @@ class DoctorControllerTest extends BaseControllerTest {
      */
     @Test
     void getDoctorAvailability_InvalidToken_ReturnsUnauthorized() throws Exception {
-        when(service.validateToken("invalid-token", "patient"))
-            .thenReturn(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(new HashMap<>()));
-
         mockMvc.perform(get("/doctor/availability/patient/1/2024-01-15/" +
                             "invalid-token"))
             .andExpect(status().isUnauthorized());
     }
 
+    /**
+     * Tests the multi-day availability endpoint.
+     * 
+     * Verifies open slots come back keyed by day and that a reversed
+     * range is rejected before the service is called.
+     */
+    @Test
+    void getDoctorAvailabilityRange_ValidToken_ReturnsSlotsPerDay() throws Exception {
+        Map<LocalDate, List<String>> week = new java.util.LinkedHashMap<>();
+        week.put(LocalDate.parse("2024-01-15"), List.of("09:00-10:00"));
+        week.put(LocalDate.parse("2024-01-16"), List.of());
+        when(doctorService.getDoctorAvailability(1L, LocalDate.parse("2024-01-15"),
+                LocalDate.parse("2024-01-16")))
+            .thenReturn(week);
+
+        mockMvc.perform(get("/doctor/availability/patient/1/2024-01-15/2024-01-16/valid-token"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.message['2024-01-15'][0]").value("09:00-10:00"))
+            .andExpect(jsonPath("$.message['2024-01-16']").isEmpty());
+
+        mockMvc.perform(get("/doctor/availability/patient/1/2024-01-16/2024-01-15/valid-token"))
+            .andExpect(status().isBadRequest());
+        verify(doctorService, times(1)).getDoctorAvailability(any(), any(), any());
+    }
+
+    /**
+     * Tests bulk availability for a list of doctors and for a filter.
+     * 
+     * Verifies ids are passed through as given and that a filter request
+     * is turned into a capped doctor query.
+     */
+    @Test
+    void getBulkAvailability_IdsOrFilter_ReturnsSlotsPerDoctor() throws Exception {
+        LocalDate date = LocalDate.parse("2024-01-15");
+        when(doctorService.getOpenSlots(List.of(1L, 2L), date))
+            .thenReturn(Map.of(1L, List.of("09:00-10:00"), 2L, List.of()));
+        when(doctorService.getOpenSlots(any(DoctorQuery.class), eq(date)))
+            .thenReturn(Map.of(1L, List.of("14:00-15:00")));
+
+        mockMvc.perform(get("/doctor/availability/patient/2024-01-15/valid-token")
+                .param("ids", "1", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.message['1'][0]").value("09:00-10:00"))
+            .andExpect(jsonPath("$.message['2']").isEmpty());
+
+        mockMvc.perform(get("/doctor/availability/patient/2024-01-15/valid-token")
+                .param("speciality", "Cardiology")
+                .param("limit", "500"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.message['1'][0]").value("14:00-15:00"));
+        verify(doctorService).getOpenSlots(argThat((DoctorQuery query) ->
+                "Cardiology".equals(query.getSpecialty()) && query.getLimit() == 100), eq(date));
+    }
+
     /**
      * Tests public endpoint for retrieving all doctors.
      * 
@@ -143,7 +201,7 @@ class DoctorControllerTest extends BaseControllerTest {
      */
     @Test
     void getDoctor_NoAuth_ReturnsAllDoctors() throws Exception {
-        List<Doctor> doctors = Arrays.asList(testDoctor);
+        List<DoctorView> doctors = Arrays.asList(new DoctorView(testDoctor));
         when(doctorService.getDoctors()).thenReturn(doctors);
 
         mockMvc.perform(get("/doctor"))
@@ -152,6 +210,63 @@ class DoctorControllerTest extends BaseControllerTest {
             .andExpect(jsonPath("$.doctors[0].name").value("Dr. Smith"));
     }
 
+    /**
+     * Tests conditional GET on the doctor list.
+     * 
+     * Verifies the directory version is sent as a strong ETag and a
+     * matching If-None-Match is answered with 304 without loading doctors.
+     */
+    @Test
+    void getDoctor_ETag_ReturnsHeaderAndNotModified() throws Exception {
+        when(doctorService.getDirectoryVersion()).thenReturn("abc-7");
+        when(doctorService.getDoctors()).thenReturn(Arrays.asList(new DoctorView(testDoctor)));
+
+        mockMvc.perform(get("/doctor"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"abc-7\""));
+
+        mockMvc.perform(get("/doctor").header("If-None-Match", "\"abc-7\""))
+            .andExpect(status().isNotModified());
+
+        verify(doctorService, times(1)).getDoctors();
+    }
+
+    /**
+     * Tests paged doctor listing.
+     * 
+     * Verifies a limit switches to the paged shape and the next-page
+     * cursor is passed through.
+     */
+    @Test
+    void getDoctor_WithLimit_ReturnsPage() throws Exception {
+        Map<String, Object> page = new HashMap<>();
+        page.put("doctors", Arrays.asList(new DoctorView(testDoctor)));
+        page.put("total", 3);
+        page.put("nextCursor", "SUQKMQ");
+        when(doctorService.pageDoctors(any(), eq(null))).thenReturn(page);
+
+        mockMvc.perform(get("/doctor").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.doctors[0].name").value("Dr. Smith"))
+            .andExpect(jsonPath("$.total").value(3))
+            .andExpect(jsonPath("$.nextCursor").value("SUQKMQ"));
+    }
+
+    /**
+     * Tests paged filtering with a malformed cursor.
+     * 
+     * Verifies the service's rejection is returned as 400 Bad Request.
+     */
+    @Test
+    void filter_InvalidCursor_ReturnsBadRequest() throws Exception {
+        when(doctorService.pageDoctors(any(), eq("garbage")))
+            .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/doctor/filter/null/null/null").param("cursor", "garbage"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Invalid cursor"));
+    }
+
     /**
      * Tests doctor creation by admin with valid token.
      * 
@@ -160,8 +275,6 @@ class DoctorControllerTest extends BaseControllerTest {
      */
     @Test
     void saveDoctor_ValidAdminToken_ReturnsCreated() throws Exception {
-        when(service.validateToken("admin-token", "admin"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(doctorService.saveDoctor(any(Doctor.class)))
             .thenReturn(1);
 
@@ -180,8 +293,6 @@ class DoctorControllerTest extends BaseControllerTest {
      */
     @Test
     void saveDoctor_DuplicateEmail_ReturnsConflict() throws Exception {
-        when(service.validateToken("admin-token", "admin"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(doctorService.saveDoctor(any(Doctor.class)))
             .thenReturn(-1);
 
@@ -234,6 +345,26 @@ class DoctorControllerTest extends BaseControllerTest {
             .andExpect(jsonPath("$.error").value("Password does not match"));
     }
 
+    /**
+     * Tests doctor login when the attempt limit is exceeded.
+     * 
+     * Verifies throttled attempts return 429 Too Many Requests without
+     * reaching credential validation.
+     */
+    @Test
+    void doctorLogin_Throttled_ReturnsTooManyRequests() throws Exception {
+        when(loginThrottle.rejectAttempt(eq("doctor"), eq("smith@hospital.com"), anyString()))
+            .thenReturn(true);
+
+        mockMvc.perform(post("/doctor/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(jsonPath("$.error").exists());
+
+        verify(doctorService, never()).validateDoctor(any(Login.class));
+    }
+
     /**
      * Tests doctor update with valid admin authorization.
      * 
@@ -242,8 +373,6 @@ class DoctorControllerTest extends BaseControllerTest {
      */
     @Test
     void updateDoctor_ValidAdminToken_ReturnsOk() throws Exception {
-        when(service.validateToken("admin-token", "admin"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(doctorService.updateDoctor(any(DoctorUpdateDTO.class)))
             .thenReturn(1);
 
@@ -262,8 +391,6 @@ class DoctorControllerTest extends BaseControllerTest {
      */
     @Test
     void updateDoctor_NotFound_ReturnsNotFound() throws Exception {
-        when(service.validateToken("admin-token", "admin"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(doctorService.updateDoctor(any(DoctorUpdateDTO.class)))
             .thenReturn(-1);
 
@@ -282,8 +409,6 @@ class DoctorControllerTest extends BaseControllerTest {
      */
     @Test
     void deleteDoctor_ValidAdminToken_ReturnsSuccess() throws Exception {
-        when(service.validateToken("admin-token", "admin"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(doctorService.deleteDoctor(1L))
             .thenReturn(1);
 
@@ -293,6 +418,21 @@ class DoctorControllerTest extends BaseControllerTest {
                 .value("Doctor deleted successfull with id: 1"));
     }
 
+    /**
+     * Tests doctor deletion with a token of another role.
+     * 
+     * Verifies the rejected token stops the request with 401 and no
+     * doctor is deleted.
+     */
+    @Test
+    void deleteDoctor_NonAdminToken_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(delete("/doctor/1/patient-token"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.error").value("Invalid or expired token"));
+
+        verify(doctorService, never()).deleteDoctor(1L);
+    }
+
     /**
      * Tests deletion of non-existent doctor.
      * 
@@ -301,8 +441,6 @@ class DoctorControllerTest extends BaseControllerTest {
      */
     @Test
     void deleteDoctor_NotFound_ReturnsNotFound() throws Exception {
-        when(service.validateToken("admin-token", "admin"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(doctorService.deleteDoctor(999L))
             .thenReturn(-1);
 
@@ -351,6 +489,45 @@ class DoctorControllerTest extends BaseControllerTest {
             .andExpect(jsonPath("$.doctors").isArray());
     }
 
+    /**
+     * Tests facet counts for the filter dropdowns.
+     * 
+     * Verifies the path criteria reach the service and the counts are
+     * returned per specialty and period.
+     */
+    @Test
+    void facets_NameFilter_ReturnsCounts() throws Exception {
+        Map<String, Object> facets = new HashMap<>();
+        facets.put("specialties", Map.of("Cardiology", 2));
+        facets.put("periods", Map.of("AM", 2, "PM", 1));
+        facets.put("total", 2);
+        when(doctorService.getFacets(any())).thenReturn(facets);
+
+        mockMvc.perform(get("/doctor/facets/Smith/null/null"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.specialties.Cardiology").value(2))
+            .andExpect(jsonPath("$.periods.AM").value(2))
+            .andExpect(jsonPath("$.total").value(2));
+    }
+
+    /**
+     * Tests search box autocomplete.
+     * 
+     * Verifies the prefix and capped limit reach the service and the
+     * suggestions are returned.
+     */
+    @Test
+    void suggest_Prefix_ReturnsSuggestions() throws Exception {
+        Map<String, Object> suggestions = new HashMap<>();
+        suggestions.put("suggestions", List.of(new Suggestion("doctor", 1L, "Dr. Smith")));
+        when(doctorService.suggest("smi", 20)).thenReturn(suggestions);
+
+        mockMvc.perform(get("/doctor/suggest").param("q", "smi").param("limit", "50"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.suggestions[0].id").value(1))
+            .andExpect(jsonPath("$.suggestions[0].label").value("Dr. Smith"));
+    }
+
     /**
      * Tests doctor validation with missing required fields.
      * 
@@ -361,8 +538,6 @@ class DoctorControllerTest extends BaseControllerTest {
     void saveDoctor_InvalidData_ReturnsBadRequest() throws Exception {
         Doctor invalidDoctor = new Doctor();
         
-        when(service.validateToken("admin-token", "admin"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
 
         mockMvc.perform(post("/doctor/admin-token")
                 .contentType(MediaType.APPLICATION_JSON)
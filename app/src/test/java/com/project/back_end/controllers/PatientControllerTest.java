@@ -6,6 +6,10 @@ import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -16,10 +20,12 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Patient;
 
@@ -45,8 +51,6 @@ class PatientControllerTest extends BaseControllerTest {
 
     private Patient testPatient;
     private Login loginRequest;
-    private Map<String, String> validTokenResponse;
-    private Map<String, String> invalidTokenResponse;
     private Map<String, Object> patientDataResponse;
 
     /**
@@ -70,14 +74,13 @@ class PatientControllerTest extends BaseControllerTest {
         loginRequest.setEmail("john@example.com");
         loginRequest.setPassword("password123");
 
-        validTokenResponse = new HashMap<>();
-        validTokenResponse.put("valid", "true");
-
-        invalidTokenResponse = new HashMap<>();
-        invalidTokenResponse.put("error", "Invalid or expired token");
-
         patientDataResponse = new HashMap<>();
         patientDataResponse.put("patient", testPatient);
+
+        when(tokenService.resolvePrincipal("valid-token"))
+            .thenReturn(new AuthenticatedPrincipal("patient", "john@example.com", 1L));
+        when(tokenService.resolvePrincipal("doctor-token"))
+            .thenReturn(new AuthenticatedPrincipal("doctor", "smith@hospital.com", 1L));
     }
 
     /**
@@ -88,9 +91,7 @@ class PatientControllerTest extends BaseControllerTest {
      */
     @Test
     void getPatientData_ValidToken_ReturnsPatientData() throws Exception {
-        when(service.validateToken("valid-token", "patient"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
-        when(patientService.getPatientDetails("valid-token"))
+        when(patientService.getPatientDetails(1L))
             .thenReturn(ResponseEntity.ok(patientDataResponse));
 
         mockMvc.perform(get("/patient/valid-token"))
@@ -106,10 +107,6 @@ class PatientControllerTest extends BaseControllerTest {
      */
     @Test
     void getPatientData_InvalidToken_ReturnsUnauthorized() throws Exception {
-        when(service.validateToken("invalid-token", "patient"))
-            .thenReturn(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(new HashMap<>()));
-
         mockMvc.perform(get("/patient/invalid-token"))
             .andExpect(status().isUnauthorized());
     }
@@ -173,6 +170,26 @@ class PatientControllerTest extends BaseControllerTest {
             .andExpect(jsonPath("$.message").value("Internal server error"));
     }
 
+    /**
+     * Tests patient registration while the password pool is saturated.
+     * 
+     * Verifies the rejection reaches the client as 503 with a
+     * Retry-After header instead of a generic server error.
+     */
+    @Test
+    void createPatient_HashingPoolSaturated_ReturnsServiceUnavailable() throws Exception {
+        when(service.validatePatient(any(Patient.class)))
+            .thenReturn(true);
+        when(patientService.createPatient(any(Patient.class)))
+            .thenReturn(-1);
+
+        mockMvc.perform(post("/patient")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testPatient)))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string("Retry-After", "1"));
+    }
+
     /**
      * Tests patient login with valid credentials.
      * 
@@ -226,9 +243,7 @@ class PatientControllerTest extends BaseControllerTest {
         Map<String, Object> appointmentResponse = new HashMap<>();
         appointmentResponse.put("appointments", new Object[]{});
         
-        when(service.validateToken("valid-token", "patient"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
-        when(patientService.getPatientAppointment(1L, "valid-token"))
+        when(patientService.getPatientAppointment(1L))
             .thenReturn(ResponseEntity.ok(appointmentResponse));
 
         mockMvc.perform(get("/patient/1/patient/valid-token"))
@@ -247,9 +262,7 @@ class PatientControllerTest extends BaseControllerTest {
         Map<String, Object> filterResponse = new HashMap<>();
         filterResponse.put("appointments", new Object[]{});
         
-        when(service.validateToken("valid-token", "patient"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
-        when(service.filterPatient("past", "Dr.Smith", "valid-token"))
+        when(service.filterPatient("past", "Dr.Smith", 1L))
             .thenReturn(ResponseEntity.ok(filterResponse));
 
         mockMvc.perform(get("/patient/filter/past/Dr.Smith/valid-token"))
@@ -268,9 +281,7 @@ class PatientControllerTest extends BaseControllerTest {
         Map<String, Object> filterResponse = new HashMap<>();
         filterResponse.put("appointments", new Object[]{});
         
-        when(service.validateToken("valid-token", "patient"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
-        when(service.filterPatient("null", "null", "valid-token"))
+        when(service.filterPatient("null", "null", 1L))
             .thenReturn(ResponseEntity.ok(filterResponse));
 
         mockMvc.perform(get("/patient/filter/null/null/valid-token"))
@@ -314,4 +325,48 @@ class PatientControllerTest extends BaseControllerTest {
                 .content(objectMapper.writeValueAsString(invalidPatient)))
             .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests patient data retrieval with a doctor's token.
+     * 
+     * Verifies a doctor whose ID matches a patient's cannot read that
+     * patient's details.
+     */
+    @Test
+    void getPatientData_DoctorToken_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(get("/patient/doctor-token"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.error").value("Invalid or expired token"));
+
+        verify(patientService, never()).getPatientDetails(anyLong());
+    }
+
+    /**
+     * Tests appointment filtering with an invalid token.
+     * 
+     * Verifies a token that resolves to no principal is answered with
+     * 401 instead of failing in the handler.
+     */
+    @Test
+    void filterPatientAppointment_InvalidToken_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(get("/patient/filter/past/null/invalid-token"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.error").value("Invalid or expired token"));
+
+        verify(service, never()).filterPatient(anyString(), anyString(), anyLong());
+    }
+
+    /**
+     * Tests retrieval of another patient's appointments.
+     * 
+     * Verifies a patient token can only read the appointments of the
+     * patient it was issued to.
+     */
+    @Test
+    void getPatientAppointment_OtherPatient_ReturnsForbidden() throws Exception {
+        mockMvc.perform(get("/patient/2/patient/valid-token"))
+            .andExpect(status().isForbidden());
+
+        verify(patientService, never()).getPatientAppointment(anyLong());
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
 import com.project.back_end.models.Prescription;
 
 /**
@@ -47,8 +49,6 @@ class PrescriptionControllerTest extends BaseControllerTest {
     private ObjectMapper objectMapper;
 
     private Prescription testPrescription;
-    private Map<String, String> validTokenResponse;
-    private Map<String, String> invalidTokenResponse;
 
     /**
      * Initializes test fixtures before each test execution.
@@ -67,11 +67,8 @@ class PrescriptionControllerTest extends BaseControllerTest {
         testPrescription.setDosage("500mg twice daily");
         testPrescription.setDoctorNotes("Take with food");
 
-        validTokenResponse = new HashMap<>();
-        validTokenResponse.put("valid", "true");
-
-        invalidTokenResponse = new HashMap<>();
-        invalidTokenResponse.put("error", "Invalid or expired token");
+        when(tokenService.resolvePrincipal("doctor-token"))
+            .thenReturn(new AuthenticatedPrincipal("doctor", "smith@hospital.com", 1L));
     }
 
     /**
@@ -85,8 +82,6 @@ class PrescriptionControllerTest extends BaseControllerTest {
         Map<String, String> saveResponse = Map.of("message", 
             "Prescription saved");
         
-        when(service.validateToken("doctor-token", "doctor"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(prescriptionService.savePrescription(any(Prescription.class)))
             .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
                 .body(saveResponse));
@@ -108,10 +103,6 @@ class PrescriptionControllerTest extends BaseControllerTest {
      */
     @Test
     void savePrescription_InvalidToken_ReturnsUnauthorized() throws Exception {
-        when(service.validateToken("invalid-token", "doctor"))
-            .thenReturn(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(new HashMap<>()));
-
         mockMvc.perform(post("/prescription/invalid-token")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(testPrescription)))
@@ -133,8 +124,6 @@ class PrescriptionControllerTest extends BaseControllerTest {
             "prescription already exists"
             );
         
-        when(service.validateToken("doctor-token", "doctor"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(prescriptionService.savePrescription(any(Prescription.class)))
             .thenReturn(ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(errorResponse));
@@ -158,8 +147,6 @@ class PrescriptionControllerTest extends BaseControllerTest {
         Map<String, Object> prescriptionResponse = new HashMap<>();
         prescriptionResponse.put("prescription", Arrays.asList(testPrescription));
         
-        when(service.validateToken("doctor-token", "doctor"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(prescriptionService.getPrescription(100L))
             .thenReturn(ResponseEntity.ok(prescriptionResponse));
 
@@ -178,10 +165,6 @@ class PrescriptionControllerTest extends BaseControllerTest {
      */
     @Test
     void getPrescription_InvalidToken_ReturnsUnauthorized() throws Exception {
-        when(service.validateToken("invalid-token", "doctor"))
-            .thenReturn(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(new HashMap<>()));
-
         mockMvc.perform(get("/prescription/100/invalid-token"))
             .andExpect(status().isUnauthorized());
     }
@@ -199,8 +182,6 @@ class PrescriptionControllerTest extends BaseControllerTest {
             "Internal Server Error"
         );
         
-        when(service.validateToken("doctor-token", "doctor"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(prescriptionService.savePrescription(any(Prescription.class)))
             .thenReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(errorResponse));
@@ -212,6 +193,34 @@ class PrescriptionControllerTest extends BaseControllerTest {
             .andExpect(jsonPath("$.message").value("Internal Server Error"));
     }
 
+    /**
+     * Tests a prescription write retried with the same Idempotency-Key.
+     * 
+     * Verifies a server error is not remembered, so the retry runs the
+     * write again, while its successful response is replayed to the next
+     * retry without saving a second prescription.
+     */
+    @Test
+    void savePrescription_RetriedWithSameIdempotencyKey_SavesOnce() throws Exception {
+        when(prescriptionService.savePrescription(any(Prescription.class)))
+            .thenReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("message", "Internal Server Error")))
+            .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                .body(Map.of("message", "Prescription saved")));
+
+        int[] expectedStatuses = { 500, 201, 201 };
+        for (int expectedStatus : expectedStatuses) {
+            mockMvc.perform(post("/prescription/doctor-token")
+                    .header("Idempotency-Key", "prescription-retry-1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(testPrescription)))
+                .andExpect(status().is(expectedStatus));
+        }
+
+        verify(prescriptionService, times(2)).savePrescription(any(Prescription.class));
+        verify(appointmentService, times(2)).changeStatus(100L);
+    }
+
     /**
      * Tests prescription retrieval for non-existent appointment.
      * 
@@ -223,8 +232,6 @@ class PrescriptionControllerTest extends BaseControllerTest {
         Map<String, Object> emptyResponse = new HashMap<>();
         emptyResponse.put("prescription", Arrays.asList());
         
-        when(service.validateToken("doctor-token", "doctor"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(prescriptionService.getPrescription(999L))
             .thenReturn(ResponseEntity.ok(emptyResponse));
 
@@ -233,4 +240,25 @@ class PrescriptionControllerTest extends BaseControllerTest {
             .andExpect(jsonPath("$.prescription").isArray())
             .andExpect(jsonPath("$.prescription").isEmpty());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests prescription creation with a patient's token.
+     * 
+     * Verifies a token of another role is rejected with 401 before the
+     * appointment status or prescription is touched.
+     */
+    @Test
+    void savePrescription_PatientToken_ReturnsUnauthorized() throws Exception {
+        when(tokenService.resolvePrincipal("patient-token"))
+            .thenReturn(new AuthenticatedPrincipal("patient", "john@example.com", 1L));
+
+        mockMvc.perform(post("/prescription/patient-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testPrescription)))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.error").value("Invalid or expired token"));
+
+        verify(appointmentService, never()).changeStatus(anyLong());
+        verify(prescriptionService, never()).savePrescription(any(Prescription.class));
+    }
+}
@@ -11,14 +11,14 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+
 /**
  * Unit tests for ReportController REST endpoints.
  * 
@@ -36,30 +36,27 @@ class ReportControllerTest extends BaseControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
-    private Map<String, String> validTokenResponse;
-    private Map<String, String> invalidTokenResponse;
     private Map<String, Object> reportData;
 
     /**
      * Sets up test fixtures before each test execution.
      * 
-     * Initializes token responses and sample report data for
+     * Resolves the admin and doctor tokens and builds sample report data for
      * consistent testing across all test methods.
      */
     @BeforeEach
     @SuppressWarnings("unused")
     void setUp() {
-        validTokenResponse = new HashMap<>();
-        validTokenResponse.put("valid", "true");
-
-        invalidTokenResponse = new HashMap<>();
-        invalidTokenResponse.put("error", "Invalid or expired token");
-
         reportData = new HashMap<>();
         reportData.put("rows", Arrays.asList(
             Map.of("doctorName", "Dr. Smith", "appointments", 10),
             Map.of("doctorName", "Dr. Jones", "appointments", 8)
         ));
+
+        when(tokenService.resolvePrincipal("admin-token"))
+            .thenReturn(new AuthenticatedPrincipal("admin", "admin", 1L));
+        when(tokenService.resolvePrincipal("doctor-token"))
+            .thenReturn(new AuthenticatedPrincipal("doctor", "smith@hospital.com", 1L));
     }
 
     /**
@@ -70,8 +67,6 @@ class ReportControllerTest extends BaseControllerTest {
      */
     @Test
     void daily_ValidAdminToken_ReturnsReport() throws Exception {
-        when(service.validateToken("admin-token", "admin"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(reportService.daily(any(LocalDate.class)))
             .thenReturn(reportData);
 
@@ -89,10 +84,6 @@ class ReportControllerTest extends BaseControllerTest {
      */
     @Test
     void daily_InvalidToken_ReturnsUnauthorized() throws Exception {
-        when(service.validateToken("invalid-token", "admin"))
-            .thenReturn(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(invalidTokenResponse));
-
         mockMvc.perform(get("/reports/daily/2024-01-15/invalid-token"))
             .andExpect(status().isUnauthorized())
             .andExpect(jsonPath("$.error")
@@ -107,8 +98,6 @@ class ReportControllerTest extends BaseControllerTest {
      */
     @Test
     void topByMonth_ValidAdminToken_ReturnsReport() throws Exception {
-        when(service.validateToken("admin-token", "admin"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(reportService.topByMonth(1, 2024))
             .thenReturn(reportData);
 
@@ -126,16 +115,9 @@ class ReportControllerTest extends BaseControllerTest {
      */
     @Test
     void topByMonth_NonAdminToken_ReturnsUnauthorized() throws Exception {
-        Map<String, String> errorResponse = new HashMap<>();
-        errorResponse.put("error", "Insufficient privileges");
-        
-        when(service.validateToken("doctor-token", "admin"))
-            .thenReturn(ResponseEntity.status(HttpStatus.FORBIDDEN)
-                .body(errorResponse));
-
         mockMvc.perform(get("/reports/top-doctor/month/1/2024/doctor-token"))
-            .andExpect(status().isForbidden())
-            .andExpect(jsonPath("$.error").value("Insufficient privileges"));
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.error").value("Invalid or expired token"));
     }
 
     /**
@@ -146,8 +128,6 @@ class ReportControllerTest extends BaseControllerTest {
      */
     @Test
     void topByYear_ValidAdminToken_ReturnsReport() throws Exception {
-        when(service.validateToken("admin-token", "admin"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(reportService.topByYear(2024))
             .thenReturn(reportData);
 
@@ -165,16 +145,9 @@ class ReportControllerTest extends BaseControllerTest {
      */
     @Test
     void topByYear_ExpiredToken_ReturnsUnauthorized() throws Exception {
-        Map<String, String> expiredResponse = new HashMap<>();
-        expiredResponse.put("error", "Token has expired");
-        
-        when(service.validateToken("expired-token", "admin"))
-            .thenReturn(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(expiredResponse));
-
         mockMvc.perform(get("/reports/top-doctor/year/2024/expired-token"))
             .andExpect(status().isUnauthorized())
-            .andExpect(jsonPath("$.error").value("Token has expired"));
+            .andExpect(jsonPath("$.error").value("Invalid or expired token"));
     }
 
     /**
@@ -197,8 +170,6 @@ class ReportControllerTest extends BaseControllerTest {
      */
     @Test
     void topByMonth_InvalidMonth_HandledByService() throws Exception {
-        when(service.validateToken("admin-token", "admin"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(reportService.topByMonth(13, 2024))
             .thenReturn(Map.of("rows", Arrays.asList()));
 
@@ -215,8 +186,6 @@ class ReportControllerTest extends BaseControllerTest {
      */
     @Test
     void daily_NoData_ReturnsEmptyRows() throws Exception {
-        when(service.validateToken("admin-token", "admin"))
-            .thenReturn(ResponseEntity.ok(validTokenResponse));
         when(reportService.daily(any(LocalDate.class)))
             .thenReturn(Map.of("rows", Arrays.asList()));
 
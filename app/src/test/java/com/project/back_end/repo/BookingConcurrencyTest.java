@@ -0,0 +1,236 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.SlotMask;
+import com.project.back_end.models.Specialty;
+import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.ReservationLedger;
+import com.project.back_end.services.Service;
+import com.project.back_end.services.SlotCalendar;
+import com.project.back_end.services.SlotHolds;
+
+/**
+ * Races many patients for one slot through {@link AppointmentService#bookAppointment}.
+ *
+ * Runs without the test transaction so every booking commits on its own
+ * connection, the way concurrent requests do in production. Exactly one
+ * booking must win; every other one must be answered with 409, whether
+ * the reservation ledger or the unique constraint turned it away.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ AppointmentService.class, ReservationLedger.class, SlotCalendar.class, SlotHolds.class })
+@SuppressWarnings("removal")
+class BookingConcurrencyTest {
+
+    private static final int BOOKINGS = 200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private SpecialtyRepository specialtyRepository;
+
+    @Autowired
+    private SlotCalendarRepository slotCalendarRepository;
+
+    @Autowired
+    private SlotHolds slotHolds;
+
+    @MockBean
+    private Service service;
+
+    private final LocalDateTime slot = LocalDateTime.now().plusDays(7).withHour(9).withMinute(0)
+            .withSecond(0).withNano(0);
+    private Doctor doctor;
+    private final List<Patient> patients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Specialty cardiology = specialtyRepository.save(new Specialty("Cardiology"));
+        doctor = new Doctor();
+        doctor.setName("Doctor Busy");
+        doctor.setSpecialtyRef(cardiology);
+        doctor.setEmail("busy@clinic.com");
+        doctor.setPassword("secret123");
+        doctor.setPhone("555-000-0001");
+        doctor.setAvailability(List.of("09:00-10:00", "10:00-11:00"));
+        doctor = doctorRepository.save(doctor);
+
+        for (int p = 0; p < 20; p++) {
+            patients.add(patientRepository.save(new Patient(null, "Patient " + p, "patient" + p + "@mail.com",
+                    "secret123", "555-111-00" + (10 + p), "1 Main St")));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll();
+        slotCalendarRepository.deleteAll();
+        patientRepository.deleteAll();
+        doctorRepository.deleteAll();
+        specialtyRepository.deleteAll();
+    }
+
+    @Test
+    void parallelBookingsForOneSlot_ExactlyOneSucceeds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<Map<String, String>>>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < BOOKINGS; i++) {
+                Patient patient = patients.get(i % patients.size());
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return appointmentService.bookAppointment(request(patient.getId()), patient.getId());
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            int conflicts = 0;
+            for (Future<ResponseEntity<Map<String, String>>> result : results) {
+                HttpStatus status = HttpStatus.valueOf(result.get(60, TimeUnit.SECONDS).getStatusCode().value());
+                if (status == HttpStatus.CREATED) created++;
+                if (status == HttpStatus.CONFLICT) conflicts++;
+            }
+
+            assertEquals(1, created);
+            assertEquals(BOOKINGS - 1, conflicts);
+            assertEquals(1, appointmentRepository.count());
+            assertEquals(SlotMask.of(slot.toLocalTime()),
+                    slotCalendarRepository.findBookedMask(doctor.getId(), slot.toLocalDate()).orElse(0L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void slotBookedOutsideLedger_ConstraintReturnsConflict() {
+        appointmentRepository.save(new Appointment(null, doctor, patients.get(1), slot, 0));
+
+        ResponseEntity<Map<String, String>> response = appointmentService.bookAppointment(
+                request(patients.get(0).getId()), patients.get(0).getId());
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Appointment already booked for given time", response.getBody().get("message"));
+        assertEquals(1, appointmentRepository.count());
+    }
+
+    @Test
+    void slotNotOffered_ReturnsConflictWithoutInsert() {
+        ResponseEntity<Map<String, String>> response = appointmentService.bookAppointment(
+                new Appointment(null, doctorRef(), patientRef(patients.get(0).getId()), slot.withHour(15), 0),
+                patients.get(0).getId());
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(0, appointmentRepository.count());
+    }
+
+    @Test
+    void slotHeldByAnotherPatient_OnlyHolderCanBook() {
+        Long holder = patients.get(0).getId();
+        Long other = patients.get(1).getId();
+
+        assertEquals(HttpStatus.CREATED, appointmentService.holdSlot(doctor.getId(), slot, holder).getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, appointmentService.holdSlot(doctor.getId(), slot, other).getStatusCode());
+
+        ResponseEntity<Map<String, String>> refused = appointmentService.bookAppointment(request(other), other);
+        assertEquals(HttpStatus.CONFLICT, refused.getStatusCode());
+        assertEquals("Slot is held by another patient", refused.getBody().get("message"));
+
+        assertEquals(HttpStatus.CREATED, appointmentService.bookAppointment(request(holder), holder).getStatusCode());
+        // Booking consumed the hold
+        assertFalse(slotHolds.isHeldByOther(doctor.getId(), slot, other));
+        assertEquals(1, appointmentRepository.count());
+    }
+
+    @Test
+    void slotHeldByAnotherPatient_HolderIdInBody_Refused() {
+        Long holder = patients.get(0).getId();
+        Long other = patients.get(1).getId();
+        assertEquals(HttpStatus.CREATED, appointmentService.holdSlot(doctor.getId(), slot, holder).getStatusCode());
+
+        // The other patient is authenticated but names the holder in the body
+        ResponseEntity<Map<String, String>> refused = appointmentService.bookAppointment(request(holder), other);
+        assertEquals(HttpStatus.BAD_REQUEST, refused.getStatusCode());
+        assertEquals("Patient Id mismatch", refused.getBody().get("message"));
+        assertEquals(0, appointmentRepository.count());
+
+        // The hold survives and the holder can still book
+        assertTrue(slotHolds.isHeldByOther(doctor.getId(), slot, other));
+        assertEquals(HttpStatus.CREATED, appointmentService.bookAppointment(request(holder), holder).getStatusCode());
+        assertEquals(1, appointmentRepository.count());
+    }
+
+    @Test
+    void unknownDoctor_ReturnsBadRequest() {
+        Doctor missing = new Doctor();
+        missing.setId(doctor.getId() + 1000);
+
+        ResponseEntity<Map<String, String>> response = appointmentService.bookAppointment(
+                new Appointment(null, missing, patientRef(patients.get(0).getId()), slot, 0), patients.get(0).getId());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().get("message").contains("doctor"));
+    }
+
+    private Appointment request(Long patientId) {
+        // The controller hands over an unmanaged appointment with id 0, as bound from JSON
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctorRef());
+        appointment.setPatient(patientRef(patientId));
+        appointment.setApptTime(slot);
+        return appointment;
+    }
+
+    private Doctor doctorRef() {
+        Doctor ref = new Doctor();
+        ref.setId(doctor.getId());
+        return ref;
+    }
+
+    private static Patient patientRef(Long id) {
+        Patient ref = new Patient();
+        ref.setId(id);
+        return ref;
+    }
+}
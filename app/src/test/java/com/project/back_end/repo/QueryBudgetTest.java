@@ -0,0 +1,232 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.Specialty;
+import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.DoctorCatalog;
+import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.PasswordHasher;
+import com.project.back_end.services.PatientService;
+import com.project.back_end.services.ReservationLedger;
+import com.project.back_end.services.Service;
+import com.project.back_end.services.SlotCalendar;
+import com.project.back_end.services.SlotHolds;
+import com.project.back_end.services.SpecialtyRegistry;
+import com.project.back_end.services.TokenService;
+
+/**
+ * SQL statement budgets for the read paths behind the doctor, patient and
+ * appointment endpoints.
+ *
+ * Each test seeds several doctors, patients and appointments so that a
+ * lazy association loaded per row shows up as extra statements and blows
+ * the budget.
+ */
+@DataJpaTest(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.project.back_end.repo.SqlStatementCounter")
+@ExtendWith(SqlBudgetExtension.class)
+@Import({ DoctorCatalog.class, DoctorService.class, SpecialtyRegistry.class, PatientService.class,
+        AppointmentService.class, ReservationLedger.class, SlotCalendar.class, SlotHolds.class })
+@SuppressWarnings("removal")
+class QueryBudgetTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private DoctorCatalog doctorCatalog;
+
+    @Autowired
+    private SlotCalendar slotCalendar;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @MockBean
+    private Service service;
+
+    @MockBean
+    private TokenService tokenService;
+
+    @MockBean
+    private PasswordHasher passwordHasher;
+
+    private final LocalDate day = LocalDate.now().plusDays(7);
+    private Doctor firstDoctor;
+    private Patient firstPatient;
+    private final List<Long> doctorIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Specialty cardiology = entityManager.persist(new Specialty("Cardiology"));
+        for (int d = 0; d < 3; d++) {
+            Doctor doctor = new Doctor();
+            doctor.setName("Doctor " + d);
+            doctor.setSpecialtyRef(cardiology);
+            doctor.setEmail("doctor" + d + "@clinic.com");
+            doctor.setPassword("secret123");
+            doctor.setPhone("555-000-000" + d);
+            doctor.setAvailability(List.of("09:00-10:00", "10:00-11:00", "14:00-15:00"));
+            entityManager.persist(doctor);
+            doctorCatalog.upsert(doctor);
+            doctorIds.add(doctor.getId());
+            if (firstDoctor == null) firstDoctor = doctor;
+
+            for (int p = 0; p < 3; p++) {
+                Patient patient = new Patient(null, "Patient " + d + p, "patient" + d + p + "@mail.com",
+                        "secret123", "555-111-000" + p, "1 Main St");
+                entityManager.persist(patient);
+                if (firstPatient == null) firstPatient = patient;
+
+                entityManager.persist(new Appointment(null, doctor, patient,
+                        day.atTime(9 + p, 0), 0));
+                entityManager.persist(new Appointment(null, doctor, firstPatient,
+                        day.plusDays(1 + p).atTime(14, 0), 0));
+            }
+        }
+        entityManager.flush();
+        slotCalendar.rebuild();
+        entityManager.clear();
+    }
+
+    @Test
+    @SqlBudget(1)
+    void catalogLoad_FetchesDoctorsWithAvailabilityInOneStatement() {
+        DoctorCatalog catalog = new DoctorCatalog(doctorRepository);
+
+        assertEquals(3, catalog.snapshot().getDoctors().size());
+        assertEquals(3, catalog.snapshot().getDoctors().get(0).getAvailableTimes().size());
+        assertEquals("Cardiology", catalog.snapshot().getDoctors().get(0).getSpecialty());
+    }
+
+    @Test
+    @SqlBudget(1)
+    void doctorAvailability_ReadsOneCalendarRow() {
+        List<String> slots = doctorService.getDoctorAvailability(firstDoctor.getId(), day);
+
+        assertEquals(List.of("14:00-15:00"), slots);
+    }
+
+    @Test
+    @SqlBudget(1)
+    void doctorAvailabilityRange_ReadsCalendarRangeInOneStatement() {
+        Map<LocalDate, List<String>> week = doctorService.getDoctorAvailability(firstDoctor.getId(),
+                day, day.plusDays(6));
+
+        assertEquals(7, week.size());
+        assertEquals(List.of("14:00-15:00"), week.get(day));
+        assertEquals(List.of("09:00-10:00", "10:00-11:00"), week.get(day.plusDays(1)));
+        assertEquals(List.of("09:00-10:00", "10:00-11:00", "14:00-15:00"), week.get(day.plusDays(4)));
+    }
+
+    @Test
+    @SqlBudget(1)
+    void bulkOpenSlots_ReadsCalendarRowsInOneStatement() {
+        Map<Long, List<String>> open = doctorService.getOpenSlots(doctorIds, day);
+
+        assertEquals(doctorIds, List.copyOf(open.keySet()));
+        for (List<String> slots : open.values()) {
+            assertEquals(List.of("14:00-15:00"), slots);
+        }
+    }
+
+    @Test
+    @SqlBudget(1)
+    void patientAppointments_FetchesDoctorAndPatientWithAppointments() {
+        Map<String, Object> body = patientService.getPatientAppointment(firstPatient.getId()).getBody();
+
+        assertEquals(10, ((List<?>) body.get("appointments")).size());
+    }
+
+    @Test
+    @SqlBudget(1)
+    void patientAppointments_SelectDtoColumnsWithoutLoadingEntities() {
+        Map<String, Object> body = patientService.getPatientAppointment(firstPatient.getId()).getBody();
+
+        AppointmentDTO first = (AppointmentDTO) ((List<?>) body.get("appointments")).get(0);
+        assertEquals(firstPatient.getEmail(), first.getPatientEmail());
+        assertEquals(firstPatient.getName(), first.getPatientName());
+        assertFalse(SqlStatementCounter.statements().get(0).toLowerCase(Locale.ROOT).contains("password"));
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    @SqlBudget(1)
+    void patientFilterByCondition_FetchesAssociations() {
+        Map<String, Object> body = patientService.filterByCondition("future", firstPatient.getId()).getBody();
+
+        assertEquals(10, ((List<?>) body.get("appointments")).size());
+    }
+
+    @Test
+    @SqlBudget(1)
+    void patientFilterByDoctor_FetchesAssociations() {
+        Map<String, Object> body = patientService.filterByDoctor("Doctor", firstPatient.getId()).getBody();
+
+        assertEquals(10, ((List<?>) body.get("appointments")).size());
+    }
+
+    @Test
+    @SqlBudget(1)
+    void patientFilterByDoctorAndCondition_FetchesAssociations() {
+        Map<String, Object> body = patientService
+                .filterByDoctorAndCondition("future", "Doctor", firstPatient.getId()).getBody();
+
+        assertEquals(10, ((List<?>) body.get("appointments")).size());
+    }
+
+    @Test
+    @SqlBudget(1)
+    void doctorDayAppointments_FetchesAssociations() {
+        Map<String, Object> all = appointmentService.getAppointment("null", day, firstDoctor.getId());
+
+        assertEquals(3, ((List<?>) all.get("appointments")).size());
+    }
+
+    @Test
+    @SqlBudget(1)
+    void doctorDayAppointmentsByPatientName_FetchesAssociations() {
+        Map<String, Object> named = appointmentService.getAppointment("Patient", day, firstDoctor.getId());
+
+        assertEquals(3, ((List<?>) named.get("appointments")).size());
+    }
+
+    @Test
+    @SqlBudget(1)
+    void upcomingAppointments_FetchesAssociations() {
+        Map<String, Object> body = appointmentService.getUpcomingAppointments("null", firstDoctor.getId());
+
+        assertEquals(6, ((List<?>) body.get("appointments")).size());
+    }
+}
@@ -0,0 +1,128 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.project.back_end.DTO.AppointmentSeries;
+import com.project.back_end.config.JpaBatchConfig;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.SlotMask;
+import com.project.back_end.models.Specialty;
+import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.ReservationLedger;
+import com.project.back_end.services.Service;
+import com.project.back_end.services.SlotCalendar;
+import com.project.back_end.services.SlotHolds;
+
+/**
+ * Books weekly series through {@link AppointmentService#bookSeries}.
+ *
+ * A series is validated with a fixed number of queries and written as
+ * JDBC batches, so the statements prepared for it must not grow with the
+ * number of visits. A series with one taken visit books nothing.
+ */
+@DataJpaTest(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.project.back_end.repo.SqlStatementCounter")
+@Import({ AppointmentService.class, ReservationLedger.class, SlotCalendar.class, SlotHolds.class,
+        JpaBatchConfig.class })
+@SuppressWarnings("removal")
+class SeriesBookingTest {
+
+    private static final int VISITS = 8;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private SlotCalendar slotCalendar;
+
+    @MockBean
+    private Service service;
+
+    private final LocalDateTime first = LocalDateTime.now().plusDays(7).withHour(9).withMinute(0)
+            .withSecond(0).withNano(0);
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        doctor = new Doctor();
+        doctor.setName("Doctor Series");
+        doctor.setSpecialtyRef(entityManager.persist(new Specialty("Physiotherapy")));
+        doctor.setEmail("series@clinic.com");
+        doctor.setPassword("secret123");
+        doctor.setPhone("555-000-0011");
+        doctor.setAvailability(List.of("09:00-10:00", "10:00-11:00"));
+        entityManager.persist(doctor);
+
+        patient = entityManager.persist(new Patient(null, "Patient Series", "series@mail.com",
+                "secret123", "555-111-0011", "1 Main St"));
+        entityManager.flush();
+    }
+
+    @Test
+    void bookSeries_WritesAllVisitsInBatches() {
+        // A day that already has a booking is updated rather than inserted
+        slotCalendar.book(doctor.getId(), first.plusWeeks(2).withHour(10));
+        entityManager.flush();
+        SqlStatementCounter.reset();
+
+        ResponseEntity<Map<String, Object>> response = appointmentService.bookSeries(
+                new AppointmentSeries(doctor.getId(), first, VISITS, 1), patient.getId());
+
+        // Doctor, locked days, up to two sequence calls, one batch per table and one for the update
+        List<String> statements = SqlStatementCounter.statements();
+        assertTrue(statements.size() <= 7, "series issued " + statements.size() + " statements:\n  "
+                + String.join("\n  ", statements));
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        // Each table's inserts are prepared once and sent as a single batch
+        assertEquals(1, statements.stream().filter(sql -> sql.startsWith("insert into appointment ")).count());
+        assertEquals(1, statements.stream().filter(sql -> sql.startsWith("insert into slot_calendar ")).count());
+
+        entityManager.clear();
+        assertEquals(VISITS, appointmentRepository.count());
+        long nine = SlotMask.of(LocalTime.of(9, 0));
+        for (int week = 0; week < VISITS; week++) {
+            long expected = week == 2 ? nine | SlotMask.of(LocalTime.of(10, 0)) : nine;
+            assertEquals(expected, slotCalendar.bookedMask(doctor.getId(), first.plusWeeks(week).toLocalDate()));
+        }
+    }
+
+    @Test
+    void bookSeries_OneVisitTaken_BooksNothing() {
+        LocalDateTime taken = first.plusWeeks(3);
+        entityManager.persist(new Appointment(null, doctor, patient, taken, 0));
+        slotCalendar.book(doctor.getId(), taken);
+        entityManager.flush();
+
+        ResponseEntity<Map<String, Object>> response = appointmentService.bookSeries(
+                new AppointmentSeries(doctor.getId(), first, VISITS, 1), patient.getId());
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(List.of(taken), response.getBody().get("conflicts"));
+        assertEquals(1, appointmentRepository.count());
+        assertEquals(SlotMask.NONE, slotCalendar.bookedMask(doctor.getId(), first.toLocalDate()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.SlotMask;
+import com.project.back_end.models.Specialty;
+import com.project.back_end.services.SlotCalendar;
+
+/**
+ * Keeps the slot calendar in step with the appointment table: bitwise
+ * book/release updates and the rebuild that repairs drifted days.
+ */
+@DataJpaTest
+@Import(SlotCalendar.class)
+class SlotCalendarTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SlotCalendar slotCalendar;
+
+    @Autowired
+    private SlotCalendarRepository slotCalendarRepository;
+
+    private final LocalDate day = LocalDate.now().plusDays(3);
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        doctor = new Doctor();
+        doctor.setName("Doctor Calendar");
+        doctor.setSpecialtyRef(entityManager.persist(new Specialty("Dermatology")));
+        doctor.setEmail("calendar@clinic.com");
+        doctor.setPassword("secret123");
+        doctor.setPhone("555-000-0009");
+        doctor.setAvailability(List.of("09:00-10:00", "10:00-11:00"));
+        entityManager.persist(doctor);
+
+        patient = entityManager.persist(new Patient(null, "Patient Calendar", "calendar@mail.com",
+                "secret123", "555-111-0009", "1 Main St"));
+    }
+
+    @Test
+    void bookAndRelease_KeepOneBitPerSlot() {
+        slotCalendar.book(doctor.getId(), day.atTime(9, 0));
+        slotCalendar.book(doctor.getId(), day.atTime(10, 0));
+        slotCalendar.release(doctor.getId(), day.atTime(9, 0));
+
+        assertEquals(SlotMask.of(LocalTime.of(10, 0)), slotCalendar.bookedMask(doctor.getId(), day));
+        assertEquals(SlotMask.NONE, slotCalendar.bookedMask(doctor.getId(), day.plusDays(1)));
+    }
+
+    @Test
+    void releaseTwice_LeavesNeighbouringSlotsBooked() {
+        slotCalendar.book(doctor.getId(), day.atTime(9, 0));
+        slotCalendar.book(doctor.getId(), day.atTime(9, 30));
+        slotCalendar.book(doctor.getId(), day.atTime(10, 0));
+
+        slotCalendar.release(doctor.getId(), day.atTime(9, 30));
+        slotCalendar.release(doctor.getId(), day.atTime(9, 30));
+
+        long expected = SlotMask.of(LocalTime.of(9, 0)) | SlotMask.of(LocalTime.of(10, 0));
+        assertEquals(expected, slotCalendar.bookedMask(doctor.getId(), day));
+    }
+
+    @Test
+    void bookTwice_LeavesNeighbouringSlotsFree() {
+        slotCalendar.book(doctor.getId(), day.atTime(9, 0));
+        slotCalendar.book(doctor.getId(), day.atTime(9, 0));
+
+        assertEquals(SlotMask.of(LocalTime.of(9, 0)), slotCalendar.bookedMask(doctor.getId(), day));
+    }
+
+    @Test
+    void rebuild_RepairsMissingWrongAndStaleDays() {
+        // Appointments written around the calendar, as sample data loaded with plain SQL would be
+        entityManager.persist(new Appointment(null, doctor, patient, day.atTime(9, 0), 0));
+        entityManager.persist(new Appointment(null, doctor, patient, day.plusDays(1).atTime(10, 0), 0));
+        entityManager.flush();
+        slotCalendarRepository.insertDay(doctor.getId(), day.plusDays(1), SlotMask.ALL_DAY);
+        slotCalendarRepository.insertDay(doctor.getId(), day.plusDays(2), SlotMask.MORNING);
+
+        assertEquals(3, slotCalendar.rebuild());
+
+        assertEquals(SlotMask.of(LocalTime.of(9, 0)), slotCalendar.bookedMask(doctor.getId(), day));
+        assertEquals(SlotMask.of(LocalTime.of(10, 0)), slotCalendar.bookedMask(doctor.getId(), day.plusDays(1)));
+        assertEquals(SlotMask.NONE, slotCalendar.bookedMask(doctor.getId(), day.plusDays(2)));
+        assertEquals(0, slotCalendar.rebuild());
+    }
+}
@@ -0,0 +1,19 @@
+package com.project.back_end.repo;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a test method may issue.
+ *
+ * Enforced by {@link SqlBudgetExtension}; statements run in
+ * {@code @BeforeEach} setup are not counted.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    int value();
+}
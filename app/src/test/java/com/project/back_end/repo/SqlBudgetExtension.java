@@ -0,0 +1,33 @@
+package com.project.back_end.repo;
+
+import java.util.List;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Fails a test when it issues more SQL statements than its
+ * {@link SqlBudget} allows. Requires {@link SqlStatementCounter} to be
+ * registered as the Hibernate statement inspector.
+ */
+public class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        SqlStatementCounter.reset();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlBudget budget = context.getRequiredTestMethod().getAnnotation(SqlBudget.class);
+        if (budget == null) return;
+
+        List<String> statements = SqlStatementCounter.statements();
+        if (statements.size() > budget.value()) {
+            throw new AssertionError(context.getDisplayName() + " issued " + statements.size()
+                    + " SQL statements, budget is " + budget.value() + ":\n  "
+                    + String.join("\n  ", statements));
+        }
+    }
+}
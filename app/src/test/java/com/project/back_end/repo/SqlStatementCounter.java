@@ -0,0 +1,32 @@
+package com.project.back_end.repo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that records every SQL statement prepared
+ * on the current thread.
+ *
+ * Hibernate instantiates the inspector itself, so the recorded statements
+ * live in a thread-local rather than in the instance.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+}
@@ -0,0 +1,76 @@
+package com.project.back_end.services;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AuthenticatedPrincipal;
+
+/**
+ * Unit tests for {@link IdempotencyStore}.
+ *
+ * Checks that a key is bound to the body it was first sent with, and
+ * that a key which cannot be scoped to a caller is refused rather than
+ * ignored.
+ */
+class IdempotencyStoreTest {
+
+    private static final String ENDPOINT = "POST /appointments";
+
+    private final IdempotencyStore store = new IdempotencyStore(60, 100, new ObjectMapper());
+    private final AuthenticatedPrincipal patient = new AuthenticatedPrincipal("patient", "john@example.com", 1L);
+    private final AtomicInteger writes = new AtomicInteger();
+
+    @Test
+    void execute_SameKeySameBody_ReplaysFirstResponse() {
+        assertEquals(HttpStatus.CREATED, store.execute(ENDPOINT, patient, "k1", Map.of("slot", "09:00"), this::write)
+                .getStatusCode());
+
+        ResponseEntity<Map<String, String>> replay = store.execute(ENDPOINT, patient, "k1",
+                Map.of("slot", "09:00"), this::write);
+
+        assertEquals(HttpStatus.CREATED, replay.getStatusCode());
+        assertEquals("true", replay.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void execute_SameKeyDifferentBody_ReturnsUnprocessableEntity() {
+        store.execute(ENDPOINT, patient, "k1", Map.of("slot", "09:00"), this::write);
+
+        ResponseEntity<Map<String, String>> reused = store.execute(ENDPOINT, patient, "k1",
+                Map.of("slot", "10:00"), this::write);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, reused.getStatusCode());
+        assertNull(reused.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void execute_KeyWithoutPrincipal_ReturnsUnauthorized() {
+        ResponseEntity<Map<String, String>> response = store.execute(ENDPOINT, null, "k1",
+                Map.of("slot", "09:00"), this::write);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        assertEquals(0, writes.get());
+    }
+
+    @Test
+    void execute_WithoutKey_RunsEveryTime() {
+        store.execute(ENDPOINT, null, null, Map.of("slot", "09:00"), this::write);
+        store.execute(ENDPOINT, patient, null, Map.of("slot", "09:00"), this::write);
+
+        assertEquals(2, writes.get());
+    }
+
+    private ResponseEntity<Map<String, String>> write() {
+        writes.incrementAndGet();
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("message", "Appointment Booked Successfully"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.project.back_end.services;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link LoginThrottle}.
+ *
+ * Drives the buckets with a fake clock: the burst is allowed and the next
+ * attempt rejected, one token comes back per refill interval, identifier
+ * and IP limits apply independently, and fully refilled buckets are
+ * dropped by the periodic sweep.
+ */
+class LoginThrottleTest {
+
+    private static final int IDENTIFIER_BURST = 3;
+    private static final long IDENTIFIER_REFILL_SECONDS = 10;
+    private static final int IP_BURST = 5;
+    private static final long IP_REFILL_SECONDS = 1;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private long now = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void rejectAttempt_BurstAllowedThenRejected() {
+        LoginThrottle throttle = throttle(IDENTIFIER_REFILL_SECONDS);
+
+        for (int i = 0; i < IDENTIFIER_BURST; i++) {
+            assertFalse(throttle.rejectAttempt("patient", "alice@mail.com", "10.0.0." + i));
+        }
+        assertTrue(throttle.rejectAttempt("patient", "alice@mail.com", "10.0.0.9"));
+        assertEquals(1.0, rejections("identifier"));
+        assertEquals(0.0, rejections("ip"));
+    }
+
+    @Test
+    void rejectAttempt_RefillsOneTokenPerInterval() {
+        LoginThrottle throttle = throttle(IDENTIFIER_REFILL_SECONDS);
+        for (int i = 0; i < IDENTIFIER_BURST; i++) {
+            throttle.rejectAttempt("patient", "alice@mail.com", "10.0.0.1");
+        }
+        assertTrue(throttle.rejectAttempt("patient", "alice@mail.com", "10.0.0.1"));
+
+        advanceSeconds(IDENTIFIER_REFILL_SECONDS - 1);
+        assertTrue(throttle.rejectAttempt("patient", "alice@mail.com", "10.0.0.1"));
+
+        advanceSeconds(1);
+        assertFalse(throttle.rejectAttempt("patient", "alice@mail.com", "10.0.0.1"));
+        assertTrue(throttle.rejectAttempt("patient", "alice@mail.com", "10.0.0.1"));
+    }
+
+    @Test
+    void rejectAttempt_IdentifierNormalizedAndScopedByRealm() {
+        LoginThrottle throttle = throttle(IDENTIFIER_REFILL_SECONDS);
+        for (int i = 0; i < IDENTIFIER_BURST; i++) {
+            throttle.rejectAttempt("patient", "alice@mail.com", "10.0.0." + i);
+        }
+
+        assertTrue(throttle.rejectAttempt("patient", "  Alice@Mail.COM ", "10.0.0.8"));
+        assertFalse(throttle.rejectAttempt("doctor", "alice@mail.com", "10.0.0.9"));
+    }
+
+    @Test
+    void rejectAttempt_IpLimitedAcrossIdentifiers() {
+        LoginThrottle throttle = throttle(IDENTIFIER_REFILL_SECONDS);
+
+        for (int i = 0; i < IP_BURST; i++) {
+            assertFalse(throttle.rejectAttempt("patient", "user" + i + "@mail.com", "10.0.0.1"));
+        }
+        assertTrue(throttle.rejectAttempt("patient", "another@mail.com", "10.0.0.1"));
+        assertFalse(throttle.rejectAttempt("patient", "another@mail.com", "10.0.0.2"));
+        assertEquals(1.0, rejections("ip"));
+        assertEquals(0.0, rejections("identifier"));
+    }
+
+    @Test
+    void sweep_DropsOnlyRefilledBuckets() {
+        // Identifier buckets refill over 6 minutes, IP buckets over 5 seconds
+        LoginThrottle throttle = throttle(120);
+        throttle.rejectAttempt("patient", "alice@mail.com", "10.0.0.1");
+        throttle.rejectAttempt("patient", "alice@mail.com", "10.0.0.1");
+        assertEquals(2, throttle.bucketCount());
+
+        // Past the sweep interval the IP bucket is full again, alice's is not
+        advanceSeconds(61);
+        throttle.rejectAttempt("patient", "bob@mail.com", "10.0.0.2");
+        assertEquals(3, throttle.bucketCount());
+
+        // Once every bucket has refilled, the next sweep forgets them all
+        advanceSeconds(IDENTIFIER_BURST * 120);
+        throttle.rejectAttempt("patient", "carol@mail.com", "10.0.0.3");
+        assertEquals(2, throttle.bucketCount());
+    }
+
+    private LoginThrottle throttle(long identifierRefillSeconds) {
+        return new LoginThrottle(IDENTIFIER_BURST, identifierRefillSeconds, IP_BURST, IP_REFILL_SECONDS,
+                meterRegistry, () -> now);
+    }
+
+    private void advanceSeconds(long seconds) {
+        now += TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    private double rejections(String scope) {
+        return meterRegistry.counter("clinic.login.throttled", "scope", scope).count();
+    }
+}
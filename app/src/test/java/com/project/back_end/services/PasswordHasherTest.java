@@ -0,0 +1,129 @@
+package com.project.back_end.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link PasswordHasher}.
+ *
+ * Covers the transparent upgrade of legacy plaintext and low-cost hashes
+ * on login, and the two ways the bounded pool pushes back: rejecting a
+ * call when the queue is full and giving up on a call that waits past the
+ * timeout. The pool tests use a high bcrypt cost so a single hash keeps
+ * the only worker busy for far longer than the test needs.
+ */
+class PasswordHasherTest {
+
+    private static final int FAST_COST = 4;
+    private static final int SLOW_COST = 14;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<PasswordHasher> hashers = new ArrayList<>();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        hashers.forEach(PasswordHasher::shutdown);
+    }
+
+    @Test
+    void matches_LegacyPlaintext_UpgradesToBcrypt() {
+        PasswordHasher hasher = hasher(FAST_COST, 1, 4, 5000);
+        List<String> rehashed = new ArrayList<>();
+
+        assertTrue(hasher.matches("secret123", "secret123", rehashed::add));
+
+        assertEquals(1, rehashed.size());
+        assertTrue(rehashed.get(0).startsWith("$2"));
+        assertTrue(new BCryptPasswordEncoder(FAST_COST).matches("secret123", rehashed.get(0)));
+    }
+
+    @Test
+    void matches_WrongLegacyPlaintext_RejectsWithoutUpgrade() {
+        PasswordHasher hasher = hasher(FAST_COST, 1, 4, 5000);
+        List<String> rehashed = new ArrayList<>();
+
+        assertFalse(hasher.matches("secret124", "secret123", rehashed::add));
+        assertTrue(rehashed.isEmpty());
+    }
+
+    @Test
+    void matches_HashAtConfiguredCost_KeepsStoredHash() {
+        PasswordHasher hasher = hasher(FAST_COST, 1, 4, 5000);
+        String stored = hasher.hash("secret123");
+        List<String> rehashed = new ArrayList<>();
+
+        assertTrue(hasher.matches("secret123", stored, rehashed::add));
+        assertTrue(rehashed.isEmpty());
+    }
+
+    @Test
+    void matches_HashBelowConfiguredCost_Rehashes() {
+        PasswordHasher hasher = hasher(FAST_COST + 1, 1, 4, 5000);
+        String stored = new BCryptPasswordEncoder(FAST_COST).encode("secret123");
+        List<String> rehashed = new ArrayList<>();
+
+        assertTrue(hasher.matches("secret123", stored, rehashed::add));
+        assertEquals(1, rehashed.size());
+        assertTrue(rehashed.get(0).startsWith("$2a$0" + (FAST_COST + 1) + "$"));
+    }
+
+    @Test
+    void hash_QueueFull_RejectsImmediately() throws Exception {
+        PasswordHasher hasher = hasher(SLOW_COST, 1, 1, 60_000);
+
+        // The first call starts the only worker, so a queued call means it is busy
+        callers.submit(() -> hasher.hash("first"));
+        callers.submit(() -> hasher.hash("second"));
+        awaitQueueDepth(1);
+
+        long started = System.nanoTime();
+        assertThrows(RejectedExecutionException.class, () -> hasher.hash("third"));
+        assertTrue(System.nanoTime() - started < 1_000_000_000L, "rejection must not wait for the pool");
+        assertEquals(1.0, meterRegistry.counter("clinic.password.rejected").count());
+    }
+
+    @Test
+    void hash_SlowerThanTimeout_GivesUp() {
+        PasswordHasher hasher = hasher(SLOW_COST, 1, 1, 50);
+
+        RejectedExecutionException e = assertThrows(RejectedExecutionException.class,
+                () -> hasher.hash("secret123"));
+
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertEquals(1.0, meterRegistry.counter("clinic.password.rejected").count());
+    }
+
+    private PasswordHasher hasher(int cost, int threads, int queueCapacity, long timeoutMillis) {
+        PasswordHasher hasher = new PasswordHasher(cost, threads, queueCapacity, timeoutMillis, meterRegistry);
+        hashers.add(hasher);
+        return hasher;
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        for (int i = 0; i < 500 && queueDepth() < depth; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(depth, queueDepth());
+    }
+
+    private double queueDepth() {
+        return meterRegistry.get("clinic.password.queue.depth").gauge().value();
+    }
+}
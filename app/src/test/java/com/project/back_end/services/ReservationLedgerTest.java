@@ -0,0 +1,58 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ReservationLedger}.
+ *
+ * Uses a fake clock to let a day's mask expire while a claim on it is
+ * still outstanding, and checks that releasing that claim leaves claims
+ * on the replacement mask alone.
+ */
+class ReservationLedgerTest {
+
+    private static final long TTL_SECONDS = 30;
+    private static final Long DOCTOR_ID = 1L;
+
+    private final LocalDateTime slot = LocalDateTime.now().plusDays(2).withHour(9).withMinute(0)
+            .withSecond(0).withNano(0);
+    private long now = TimeUnit.HOURS.toNanos(1);
+    private final ReservationLedger ledger = new ReservationLedger(TTL_SECONDS, () -> now);
+
+    @Test
+    void tryReserve_SlotClaimed_RejectsUntilReleased() {
+        ReservationLedger.Claim claim = ledger.tryReserve(DOCTOR_ID, slot);
+        assertNotNull(claim);
+        assertNull(ledger.tryReserve(DOCTOR_ID, slot));
+
+        claim.release();
+        assertNotNull(ledger.tryReserve(DOCTOR_ID, slot));
+    }
+
+    @Test
+    void release_ClaimFromExpiredDay_KeepsNewerClaim() {
+        ReservationLedger.Claim stale = ledger.tryReserve(DOCTOR_ID, slot);
+
+        // The day expires while the first booking is still in flight and a second request claims the slot
+        now += TimeUnit.SECONDS.toNanos(TTL_SECONDS + 1);
+        assertNotNull(ledger.tryReserve(DOCTOR_ID, slot));
+
+        stale.release();
+        assertNull(ledger.tryReserve(DOCTOR_ID, slot));
+    }
+
+    @Test
+    void tryReserve_OffBoundaryTime_AlwaysLetThrough() {
+        LocalDateTime offBoundary = slot.withMinute(10);
+
+        ReservationLedger.Claim claim = ledger.tryReserve(DOCTOR_ID, offBoundary);
+        assertNotNull(claim);
+        assertNotNull(ledger.tryReserve(DOCTOR_ID, offBoundary));
+        claim.release();
+    }
+}